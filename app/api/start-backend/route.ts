@@ -1,29 +1,44 @@
 import { NextRequest, NextResponse } from 'next/server'
 import { spawn } from 'child_process'
+import fs from 'fs'
 import path from 'path'
 
+// Liveness says the JVM is up (possibly still warming up), readiness that it takes traffic
+const probe = async (backendUrl: string, check: 'live' | 'ready') => {
+  const response = await fetch(`${backendUrl}/api/wordle/health/${check}`, {
+    method: 'GET',
+    signal: AbortSignal.timeout(3000)
+  }).catch(() => null)
+  return response?.ok ?? false
+}
+
 export async function POST(request: NextRequest) {
   try {
     // Get backend URL from environment or default to Railway backend
     const backendUrl = process.env.NEXT_PUBLIC_BACKEND_URL || 'https://wordle-backend-production-b789.up.railway.app'
     
-    // Check if backend is already running
-    const healthCheck = await fetch(`${backendUrl}/api/wordle/health`, {
-      method: 'GET',
-      signal: AbortSignal.timeout(3000)
-    }).catch(() => null)
-
-    if (healthCheck?.ok) {
+    // Check if backend is already running, or still starting up
+    if (await probe(backendUrl, 'ready')) {
       return NextResponse.json({ 
         success: true, 
         message: 'Backend is already running',
         status: 'running'
       })
     }
+    if (await probe(backendUrl, 'live')) {
+      return NextResponse.json({ 
+        success: true, 
+        message: 'Backend is warming up',
+        status: 'starting'
+      })
+    }
 
-    // Start the backend process
+    // Start the backend process: the packaged jar if it was built, which maps its prebuilt
+    // dictionary snapshot, otherwise a build and run through Maven
     const backendPath = path.join(process.cwd(), 'wordle-backend')
-    const child = spawn('mvn', ['spring-boot:run'], {
+    const jar = path.join(backendPath, 'target', 'wordle-backend-0.0.1-SNAPSHOT.jar')
+    const [command, args]: [string, string[]] = fs.existsSync(jar) ? ['java', ['-jar', jar]] : ['mvn', ['spring-boot:run']]
+    const child = spawn(command, args, {
       cwd: backendPath,
       detached: true,
       stdio: 'ignore'
@@ -54,16 +69,19 @@ export async function GET(request: NextRequest) {
     // Get backend URL from environment or default to Railway backend
     const backendUrl = process.env.NEXT_PUBLIC_BACKEND_URL || 'https://wordle-backend-production-b789.up.railway.app'
     
-    // Check backend health
-    const response = await fetch(`${backendUrl}/api/wordle/health`, {
-      method: 'GET',
-      signal: AbortSignal.timeout(3000)
-    })
-
+    // Check backend health: running once ready, starting while it is live but warming up
+    if (await probe(backendUrl, 'ready')) {
+      return NextResponse.json({ 
+        success: true,
+        status: 'running',
+        message: 'Backend is running'
+      })
+    }
+    const live = await probe(backendUrl, 'live')
     return NextResponse.json({ 
-      success: response.ok,
-      status: response.ok ? 'running' : 'stopped',
-      message: response.ok ? 'Backend is running' : 'Backend is not running'
+      success: false,
+      status: live ? 'starting' : 'stopped',
+      message: live ? 'Backend is warming up' : 'Backend is not running'
     })
 
   } catch (error) {
@@ -14,6 +14,17 @@ export async function POST(request: NextRequest) {
       body: JSON.stringify(body),
     })
 
+    // Pass load shedding through so the client can honour Retry-After
+    if (response.status === 429 || response.status === 503) {
+      return NextResponse.json(await response.json(), {
+        status: response.status,
+        headers: {
+          'Retry-After': response.headers.get('Retry-After') ?? '1',
+          'Access-Control-Allow-Origin': '*',
+        },
+      })
+    }
+
     if (!response.ok) {
       throw new Error(`Backend responded with ${response.status}`)
     }
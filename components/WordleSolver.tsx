@@ -8,8 +8,12 @@ interface WordleResponse {
   suggestions: string[]
   message: string
   success: boolean
+  complete?: boolean
 }
 
+// Time the backend may spend ranking before it answers with its best guesses so far
+const SOLVE_BUDGET_MS = 500
+
 const WordleSolver = () => {
   const [word, setWord] = useState('')
   const [hints, setHints] = useState('')
@@ -25,6 +29,28 @@ const WordleSolver = () => {
     return '/api/wordle-proxy'
   }
 
+  // Read a Server-Sent Events stream, handing each event's JSON payload to onEvent
+  const readEventStream = async (response: Response, onEvent: (data: WordleResponse) => void) => {
+    const reader = response.body!.getReader()
+    const decoder = new TextDecoder()
+    let buffer = ''
+    while (true) {
+      const { done, value } = await reader.read()
+      if (done) break
+      buffer += decoder.decode(value, { stream: true }).replace(/\r\n/g, '\n')
+      let boundary
+      while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+        const data = buffer.slice(0, boundary)
+          .split('\n')
+          .filter(line => line.startsWith('data:'))
+          .map(line => line.slice(5))
+          .join('\n')
+        buffer = buffer.slice(boundary + 2)
+        if (data) onEvent(JSON.parse(data))
+      }
+    }
+  }
+
   // Check backend health via API
   const checkBackendHealth = async () => {
     try {
@@ -97,20 +123,43 @@ const WordleSolver = () => {
     setResult(null)
 
     try {
-      const response = await fetch(getBackendUrl(), {
-        method: 'POST',
-        headers: {
-          'Content-Type': 'application/json',
-        },
-        body: JSON.stringify({ word, hints }),
-      })
-
-      if (!response.ok) {
-        throw new Error('Failed to solve Wordle')
+      // Stream progressive suggestions first; fall back to a single request if streaming fails
+      let streamed = false
+      try {
+        const response = await fetch(`${getBackendUrl()}/stream`, {
+          method: 'POST',
+          headers: {
+            'Content-Type': 'application/json',
+            'Accept': 'text/event-stream',
+          },
+          body: JSON.stringify({ word, hints, budgetMs: SOLVE_BUDGET_MS }),
+        })
+        if (response.ok && response.body) {
+          await readEventStream(response, data => {
+            streamed = true
+            setResult(data)
+          })
+        }
+      } catch (streamError) {
+        console.warn('Streaming solve failed, retrying without streaming:', streamError)
       }
 
-      const data: WordleResponse = await response.json()
-      setResult(data)
+      if (!streamed) {
+        const response = await fetch(getBackendUrl(), {
+          method: 'POST',
+          headers: {
+            'Content-Type': 'application/json',
+          },
+          body: JSON.stringify({ word, hints, budgetMs: SOLVE_BUDGET_MS }),
+        })
+
+        if (!response.ok) {
+          throw new Error('Failed to solve Wordle')
+        }
+
+        const data: WordleResponse = await response.json()
+        setResult(data)
+      }
     } catch (err) {
       setError('Error connecting to solver. Make sure the backend is running on port 8080.')
       console.error('Error solving Wordle:', err)
@@ -282,6 +331,9 @@ const WordleSolver = () => {
               >
                 <h3 className="text-xl font-bold text-white mb-4">
                   {result.success ? 'Suggestions' : 'Result'}
+                  {loading && result.complete === false && (
+                    <span className="ml-2 text-sm font-normal text-primary-300">refining…</span>
+                  )}
                 </h3>
                 
                 <p className="text-primary-300 mb-4">{result.message}</p>
@@ -0,0 +1,36 @@
+package com.yiranhu.wordle.service;
+
+import java.nio.file.Path;
+
+/**
+ * Hint shapes shared by the benchmarks, each a real guess scored against "stale":
+ * all grey, a mix of grey, yellow and green, and four greens.
+ */
+final class Boards {
+
+    static final String ANSWER = "stale";
+
+    private Boards() {}
+
+    static String guess(String shape) {
+        return switch (shape) {
+            case "grey" -> "pudgy";
+            case "mixed" -> "trace";
+            case "greens" -> "stave";
+            default -> throw new IllegalArgumentException("Unknown hint shape: " + shape);
+        };
+    }
+
+    static String hints(String shape) {
+        String guess = guess(shape);
+        return Feedback.hints(guess, Feedback.pattern(guess, ANSWER));
+    }
+
+    static SolveConstraints constraints(String shape) {
+        return SolveConstraints.parse(guess(shape), hints(shape).split(" "));
+    }
+
+    static String patternsFile() {
+        return Path.of(System.getProperty("java.io.tmpdir"), "wordle-backend", "patterns.bin").toString();
+    }
+}
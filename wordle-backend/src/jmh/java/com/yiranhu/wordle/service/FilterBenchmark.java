@@ -0,0 +1,62 @@
+package com.yiranhu.wordle.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bitmap filtering of one turn over the whole dictionary. {@code warm} is the steady state
+ * after JIT warmup; {@code cold} times the first filter on a freshly built index in a new JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+
+    @Param({"grey", "mixed", "greens"})
+    public String shape;
+
+    private List<String> words;
+    private DictionaryIndex index;
+    private SolveConstraints constraints;
+
+    @Setup(Level.Trial)
+    public void loadWords() {
+        words = new WordleSolver(Boards.patternsFile(), 1, 0, "none", SolveMetrics.disabled()).words();
+        constraints = Boards.constraints(shape);
+    }
+
+    @Setup(Level.Iteration)
+    public void buildIndex() {
+        index = DictionaryIndex.build(words);
+    }
+
+    @Benchmark
+    public long[] warm() {
+        return index.filter(constraints);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(5)
+    public long[] cold() {
+        return index.filter(constraints);
+    }
+}
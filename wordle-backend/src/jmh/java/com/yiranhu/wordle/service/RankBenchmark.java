@@ -0,0 +1,77 @@
+package com.yiranhu.wordle.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entropy ranking after one turn: scoring only the remaining answers as guesses versus
+ * the full vocabulary that {@link GuessRanker#rank(long[], int)} scores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RankBenchmark {
+
+    @Param({"grey", "mixed", "greens"})
+    public String shape;
+
+    private ForkJoinPool pool;
+    private GuessRanker ranker;
+    private long[] remaining;
+    private int[] answers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<String> words = new WordleSolver(Boards.patternsFile(), 1, 0, "none", SolveMetrics.disabled()).words();
+        DictionaryIndex index = DictionaryIndex.build(words);
+        PatternMatrix patterns = PatternMatrix.open(Path.of(Boards.patternsFile()), words, words);
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        ranker = new GuessRanker(patterns, pool);
+        remaining = index.filter(Boards.constraints(shape));
+        answers = new int[DictionaryIndex.count(remaining)];
+        for (int i = 0, word = 0; word < words.size(); word++) {
+            if (DictionaryIndex.contains(remaining, word)) {
+                answers[i++] = word;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<RankedGuess> remainingAnswers() {
+        TopK top = new TopK(10);
+        for (int answer : answers) {
+            top.offer(answer, ranker.score(answer, answers), true);
+        }
+        return top.toList();
+    }
+
+    @Benchmark
+    public List<RankedGuess> fullVocabulary() {
+        return ranker.rank(remaining, 10);
+    }
+}
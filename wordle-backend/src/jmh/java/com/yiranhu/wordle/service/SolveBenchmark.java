@@ -0,0 +1,58 @@
+package com.yiranhu.wordle.service;
+
+import com.yiranhu.wordle.model.GuessFeedback;
+import com.yiranhu.wordle.model.WordleResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole request path behind {@code POST /api/wordle/solve}: hint parsing, filtering,
+ * ranking and building the response. {@code cached} is the endpoint's call, served from the
+ * result cache after the first request; {@code uncached} does the same work without the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolveBenchmark {
+
+    @Param({"grey", "mixed", "greens"})
+    public String shape;
+
+    private WordleSolver solver;
+    private String word;
+    private String hints;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        solver = new WordleSolver(Boards.patternsFile(), 0, 200_000, "", SolveMetrics.disabled());
+        word = Boards.guess(shape);
+        hints = Boards.hints(shape);
+    }
+
+    @Benchmark
+    public WordleResponse cached() {
+        return solver.solve(word, hints);
+    }
+
+    @Benchmark
+    public WordleResponse uncached() {
+        SolveConstraints constraints = solver.parseHistory(List.of(new GuessFeedback(word, hints)));
+        return solver.suggest(solver.filter(constraints, solver.allWords()));
+    }
+}
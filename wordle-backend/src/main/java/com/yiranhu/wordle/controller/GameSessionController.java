@@ -0,0 +1,50 @@
+package com.yiranhu.wordle.controller;
+
+import com.yiranhu.wordle.model.CacheStatistics;
+import com.yiranhu.wordle.model.GameSessionResponse;
+import com.yiranhu.wordle.model.GuessFeedback;
+import com.yiranhu.wordle.service.GameSessionService;
+import com.yiranhu.wordle.service.SolverExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/wordle/sessions")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001", "https://yiranhu.com", "https://*.vercel.app", "https://*.netlify.app"}, methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.DELETE, RequestMethod.OPTIONS}, allowedHeaders = "*")
+public class GameSessionController {
+
+    @Autowired
+    private GameSessionService gameSessionService;
+
+    @Autowired
+    private SolverExecutor solverExecutor;
+
+    @PostMapping
+    public CompletableFuture<ResponseEntity<GameSessionResponse>> start(@RequestParam(required = false) String dictionary,
+                                                                       @RequestParam(required = false) Integer length) {
+        return solverExecutor.submit(budgetNanos -> ResponseEntity.ok(gameSessionService.start(dictionary, length, budgetNanos)));
+    }
+
+    @PostMapping("/{sessionId}/feedback")
+    public CompletableFuture<ResponseEntity<GameSessionResponse>> feedback(@PathVariable String sessionId, @RequestBody GuessFeedback turn) {
+        return solverExecutor.submit(budgetNanos -> ResponseEntity.of(gameSessionService.feedback(sessionId, turn, budgetNanos)));
+    }
+
+    @GetMapping("/{sessionId}/suggestions")
+    public CompletableFuture<ResponseEntity<GameSessionResponse>> suggestions(@PathVariable String sessionId) {
+        return solverExecutor.submit(budgetNanos -> ResponseEntity.of(gameSessionService.suggestions(sessionId, budgetNanos)));
+    }
+
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Void> end(@PathVariable String sessionId) {
+        return gameSessionService.end(sessionId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<CacheStatistics> stats() {
+        return ResponseEntity.ok(gameSessionService.statistics());
+    }
+}
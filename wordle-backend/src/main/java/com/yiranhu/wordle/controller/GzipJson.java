@@ -0,0 +1,73 @@
+package com.yiranhu.wordle.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yiranhu.wordle.service.SolveMetrics;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzipped JSON bodies for responses that carry a strong ETag. The server's own compression
+ * leaves those alone, as a gzipped body is a different representation than the one the tag
+ * was issued for, so such endpoints compress themselves and tag the gzip variant separately.
+ * Timed as the {@code serialize} stage, like {@link TimedJsonConverter}.
+ */
+@Component
+public class GzipJson {
+
+    /** Appended to the ETag of the gzipped representation. */
+    public static final String ETAG_SUFFIX = "-gzip";
+
+    private final ObjectMapper objectMapper;
+    private final SolveMetrics metrics;
+
+    public GzipJson(ObjectMapper objectMapper, SolveMetrics metrics) {
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+    }
+
+    public byte[] write(Object value) {
+        long start = metrics.start();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        metrics.stage(SolveMetrics.Stage.SERIALIZE, start);
+        return bytes.toByteArray();
+    }
+
+    /** Whether an {@code Accept-Encoding} header allows gzip, i.e. lists it (or {@code *}) without {@code q=0}. */
+    public static boolean accepted(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") && parseQuality(parameter.substring(2)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static double parseQuality(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.yiranhu.wordle.controller;
+
+import com.yiranhu.wordle.model.WordleResponse;
+import com.yiranhu.wordle.service.SolverUnavailableException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps shed solver requests to 429 (queue full) or 503 (timed out or shutting down), with a
+ * Retry-After header so well-behaved clients back off.
+ */
+@RestControllerAdvice
+public class SolverUnavailableHandler {
+
+    @ExceptionHandler(SolverUnavailableException.class)
+    public ResponseEntity<WordleResponse> handle(SolverUnavailableException e) {
+        HttpStatus status = e.getReason() == SolverUnavailableException.Reason.OVERLOADED
+                ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.SERVICE_UNAVAILABLE;
+        long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new WordleResponse(null, e.getMessage(), false));
+    }
+}
@@ -0,0 +1,34 @@
+package com.yiranhu.wordle.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yiranhu.wordle.service.SolveMetrics;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * The application's JSON converter, replacing Spring Boot's default one, that also times
+ * writing each response body as the {@code serialize} stage of {@link SolveMetrics}.
+ */
+@Component
+public class TimedJsonConverter extends MappingJackson2HttpMessageConverter {
+
+    private final SolveMetrics metrics;
+
+    public TimedJsonConverter(ObjectMapper objectMapper, SolveMetrics metrics) {
+        super(objectMapper);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = metrics.start();
+        super.writeInternal(object, type, outputMessage);
+        metrics.stage(SolveMetrics.Stage.SERIALIZE, start);
+    }
+}
@@ -1,28 +1,238 @@
 package com.yiranhu.wordle.controller;
 
+import com.yiranhu.wordle.model.DictionaryInfo;
+import com.yiranhu.wordle.model.GuessFeedback;
+import com.yiranhu.wordle.model.MultiBoardRequest;
+import com.yiranhu.wordle.model.MultiBoardResponse;
+import com.yiranhu.wordle.model.SolverCacheStatistics;
 import com.yiranhu.wordle.model.WordleRequest;
 import com.yiranhu.wordle.model.WordleResponse;
+import com.yiranhu.wordle.service.BatchSolveService;
+import com.yiranhu.wordle.service.MultiBoardService;
+import com.yiranhu.wordle.service.SolveStreamService;
+import com.yiranhu.wordle.service.SolverExecutor;
+import com.yiranhu.wordle.service.WordleDictionary;
 import com.yiranhu.wordle.service.WordleSolver;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/wordle")
-@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001", "https://yiranhu.com", "https://*.vercel.app", "https://*.netlify.app"}, methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.OPTIONS}, allowedHeaders = "*")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001", "https://yiranhu.com", "https://*.vercel.app", "https://*.netlify.app"}, methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.OPTIONS}, allowedHeaders = "*", exposedHeaders = HttpHeaders.ETAG)
 public class WordleController {
 
     @Autowired
     private WordleSolver wordleSolver;
 
+    @Autowired
+    private SolverExecutor solverExecutor;
+
+    @Autowired
+    private BatchSolveService batchSolveService;
+
+    @Autowired
+    private SolveStreamService solveStreamService;
+
+    @Autowired
+    private MultiBoardService multiBoardService;
+
+    @Autowired
+    private GzipJson gzipJson;
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Value("${wordle.http.max-age:1d}")
+    private Duration maxAge;
+
+    /** Solved on the solver executor; ranking is cut short to fit the executor timeout. */
     @PostMapping("/solve")
-    public ResponseEntity<WordleResponse> solve(@RequestBody WordleRequest request) {
-        WordleResponse response = wordleSolver.solve(request.getWord(), request.getHints());
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<WordleResponse>> solve(@RequestBody WordleRequest request) {
+        return solverExecutor.submit(budgetNanos -> ResponseEntity.ok(wordleSolver.solve(request, budgetNanos, null)));
+    }
+
+    /**
+     * Cacheable form of {@code POST /solve}: one {@code g} (guess) and {@code f} (feedback, a
+     * character per letter: {@code -} grey, {@code x} yellow, {@code g} green) per turn, e.g.
+     * {@code /solve?g=CRANE&f=-x--g&g=BOILS&f=--g-x}. Complete responses carry a strong ETag and
+     * a public max-age, and a matching {@code If-None-Match} is answered 304 without solving.
+     * Clients that accept gzip get a gzipped body, tagged as its own representation.
+     */
+    @GetMapping("/solve")
+    public CompletableFuture<ResponseEntity<Object>> solveGet(@RequestParam(name = "g", required = false) List<String> guesses,
+                                                              @RequestParam(name = "f", required = false) List<String> feedback,
+                                                              @RequestParam(required = false) String dictionary,
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        List<GuessFeedback> history;
+        WordleDictionary resolved;
+        try {
+            history = history(guesses, feedback);
+            // One version for both the tag and the solve, even if a reload lands in between
+            resolved = wordleSolver.dictionary(dictionary, history.get(0).getWord().length());
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.ok().cacheControl(CacheControl.noStore())
+                    .body(new WordleResponse(null, e.getMessage(), false)));
+        }
+        boolean gzip = GzipJson.accepted(acceptEncoding);
+        Optional<String> etag = wordleSolver.etag(resolved, history).map(tag -> gzip ? tag + GzipJson.ETAG_SUFFIX : tag);
+        if (etag.isPresent() && matches(ifNoneMatch, etag.get())) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag.get()).cacheControl(cacheControl()).varyBy(HttpHeaders.ACCEPT_ENCODING).build());
+        }
+        return solverExecutor.submit(budgetNanos -> {
+            WordleResponse response = wordleSolver.solve(resolved, history, budgetNanos, null);
+            // Errors and budget-cut rankings are not what a later request would get
+            if (etag.isEmpty() || !response.isSuccess() || !response.isComplete()) {
+                return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(response);
+            }
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok().eTag(etag.get()).cacheControl(cacheControl())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (!gzip) {
+                return ok.body(response);
+            }
+            return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").contentType(MediaType.APPLICATION_JSON)
+                    .body(gzipJson.write(response));
+        });
+    }
+
+    /** Ranks the next guess of a multi-board game (Quordle, Octordle) for all of its unsolved boards at once. */
+    @PostMapping("/solve/boards")
+    public CompletableFuture<ResponseEntity<MultiBoardResponse>> solveBoards(@RequestBody MultiBoardRequest request) {
+        return solverExecutor.submit(budgetNanos -> ResponseEntity.ok(multiBoardService.solve(request, budgetNanos)));
+    }
+
+    /**
+     * Streams a solve as Server-Sent Events: {@code progress} events carry the best
+     * suggestions found so far, and a final {@code result} event the answer for the budget.
+     */
+    @PostMapping(value = "/solve/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter solveStream(@RequestBody WordleRequest request) {
+        return solveStreamService.stream(request);
+    }
+
+    /**
+     * Solves a JSON array or NDJSON stream of requests in parallel, streaming one NDJSON
+     * line per result (tagged with its input index) as each one finishes.
+     */
+    @PostMapping(value = "/solve/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> solveBatch(HttpServletRequest request) throws IOException {
+        InputStream body = request.getInputStream();
+        // Refused with 429 before anything is streamed when too many batches are running
+        batchSolveService.admit();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> batchSolveService.solve(body, out));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<SolverCacheStatistics> cacheStats() {
+        return ResponseEntity.ok(wordleSolver.cacheStatistics());
+    }
+
+    /** Dictionaries that requests can name in {@code dictionary}, with their current versions. */
+    @GetMapping("/dictionaries")
+    public ResponseEntity<List<DictionaryInfo>> dictionaries() {
+        String defaultName = wordleSolver.dictionary().name();
+        return ResponseEntity.ok(wordleSolver.dictionaries().stream()
+                .map(dictionary -> info(dictionary, dictionary.name().equals(defaultName)))
+                .toList());
+    }
+
+    private CacheControl cacheControl() {
+        return CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    // Turns the compact g / f query parameters into the hint format of POST requests
+    private static List<GuessFeedback> history(List<String> guesses, List<String> feedback) {
+        if (guesses == null || guesses.isEmpty()) {
+            throw new IllegalArgumentException("At least one guess (g) with its feedback (f) is required");
+        }
+        if (feedback == null || feedback.size() != guesses.size()) {
+            throw new IllegalArgumentException("Every guess (g) needs one feedback (f) parameter");
+        }
+        List<GuessFeedback> history = new ArrayList<>(guesses.size());
+        for (int t = 0; t < guesses.size(); t++) {
+            String word = guesses.get(t);
+            String marks = feedback.get(t);
+            if (marks.length() != word.length()) {
+                throw new IllegalArgumentException("Feedback '" + marks + "' must have one character per letter of '" + word + "'");
+            }
+            StringBuilder hints = new StringBuilder(2 * marks.length());
+            for (int i = 0; i < marks.length(); i++) {
+                char mark = Character.toLowerCase(marks.charAt(i));
+                if (mark != '-' && mark != 'x' && mark != 'g') {
+                    throw new IllegalArgumentException("Feedback uses '-' (grey), 'x' (yellow) and 'g' (green), not '" + marks.charAt(i) + "'");
+                }
+                // "g" is green in the POST hint format too, even where the letter itself is an x
+                hints.append(i > 0 ? " " : "").append(mark);
+            }
+            history.add(new GuessFeedback(word, hints.toString()));
+        }
+        return history;
+    }
+
+    // If-None-Match uses the weak comparison: W/ prefixes are ignored
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String quoted = '"' + etag + '"';
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(quoted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static DictionaryInfo info(WordleDictionary dictionary, boolean isDefault) {
+        return new DictionaryInfo(dictionary.name(), dictionary.length(), dictionary.answerCount(), dictionary.guessCount(),
+                Long.toHexString(dictionary.version()), dictionary.tree() != null, isDefault, dictionary.isLoaded(), dictionary.bytes());
     }
 
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Wordle Solver API is running!");
     }
+
+    /** Liveness: the server is up, though it may still be warming up; restart it only when this fails. */
+    @GetMapping("/health/live")
+    public ResponseEntity<String> live() {
+        return availability.getLivenessState() == LivenessState.CORRECT
+                ? ResponseEntity.ok("Live")
+                : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Broken");
+    }
+
+    /** Readiness: 503 until startup, including the solver warmup, is done and traffic is accepted. */
+    @GetMapping("/health/ready")
+    public ResponseEntity<String> ready() {
+        return availability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC
+                ? ResponseEntity.ok("Ready")
+                : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Warming up");
+    }
 }
@@ -0,0 +1,22 @@
+package com.yiranhu.wordle.model;
+
+public class BatchSolveResponse extends WordleResponse {
+    private int index;
+
+    public BatchSolveResponse() {}
+
+    public BatchSolveResponse(int index, WordleResponse result) {
+        super(result.getSuggestions(), result.getMessage(), result.isSuccess());
+        setRankedSuggestions(result.getRankedSuggestions());
+        setComplete(result.isComplete());
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+}
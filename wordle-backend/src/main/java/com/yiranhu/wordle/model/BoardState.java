@@ -0,0 +1,41 @@
+package com.yiranhu.wordle.model;
+
+import java.util.List;
+
+public class BoardState {
+    private boolean solved;
+    private int remaining;
+    private List<String> words;
+
+    public BoardState() {}
+
+    public BoardState(boolean solved, int remaining, List<String> words) {
+        this.solved = solved;
+        this.remaining = remaining;
+        this.words = words;
+    }
+
+    public boolean isSolved() {
+        return solved;
+    }
+
+    public void setSolved(boolean solved) {
+        this.solved = solved;
+    }
+
+    public int getRemaining() {
+        return remaining;
+    }
+
+    public void setRemaining(int remaining) {
+        this.remaining = remaining;
+    }
+
+    public List<String> getWords() {
+        return words;
+    }
+
+    public void setWords(List<String> words) {
+        this.words = words;
+    }
+}
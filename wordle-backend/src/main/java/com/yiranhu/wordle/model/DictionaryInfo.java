@@ -0,0 +1,100 @@
+package com.yiranhu.wordle.model;
+
+public class DictionaryInfo {
+    private String name;
+    private int length;
+    private int answers;
+    private int guesses;
+    private String version;
+    private boolean tree;
+    private boolean defaultDictionary;
+    private boolean loaded;
+    private long bytes;
+
+    public DictionaryInfo() {}
+
+    public DictionaryInfo(String name, int length, int answers, int guesses, String version, boolean tree, boolean defaultDictionary,
+                          boolean loaded, long bytes) {
+        this.name = name;
+        this.length = length;
+        this.answers = answers;
+        this.guesses = guesses;
+        this.version = version;
+        this.tree = tree;
+        this.defaultDictionary = defaultDictionary;
+        this.loaded = loaded;
+        this.bytes = bytes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public void setLength(int length) {
+        this.length = length;
+    }
+
+    public int getAnswers() {
+        return answers;
+    }
+
+    public void setAnswers(int answers) {
+        this.answers = answers;
+    }
+
+    public int getGuesses() {
+        return guesses;
+    }
+
+    public void setGuesses(int guesses) {
+        this.guesses = guesses;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public boolean isTree() {
+        return tree;
+    }
+
+    public void setTree(boolean tree) {
+        this.tree = tree;
+    }
+
+    public boolean isDefaultDictionary() {
+        return defaultDictionary;
+    }
+
+    public void setDefaultDictionary(boolean defaultDictionary) {
+        this.defaultDictionary = defaultDictionary;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void setLoaded(boolean loaded) {
+        this.loaded = loaded;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+}
@@ -0,0 +1,42 @@
+package com.yiranhu.wordle.model;
+
+public class GameSessionResponse extends WordleResponse {
+    private String sessionId;
+    private int turns;
+    private int remaining;
+
+    public GameSessionResponse() {}
+
+    public GameSessionResponse(String sessionId, int turns, int remaining, WordleResponse result) {
+        super(result.getSuggestions(), result.getMessage(), result.isSuccess());
+        setRankedSuggestions(result.getRankedSuggestions());
+        setComplete(result.isComplete());
+        this.sessionId = sessionId;
+        this.turns = turns;
+        this.remaining = remaining;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    public void setTurns(int turns) {
+        this.turns = turns;
+    }
+
+    public int getRemaining() {
+        return remaining;
+    }
+
+    public void setRemaining(int remaining) {
+        this.remaining = remaining;
+    }
+}
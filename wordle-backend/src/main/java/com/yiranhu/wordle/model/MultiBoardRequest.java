@@ -0,0 +1,54 @@
+package com.yiranhu.wordle.model;
+
+import java.util.List;
+
+/**
+ * A multi-board game (Quordle, Octordle, ...): the guesses played so far, shared by every
+ * board, and per board the hints each guess received, in the same order. A board that was
+ * solved needs no hints after its all-green turn.
+ */
+public class MultiBoardRequest {
+    private List<String> guesses;
+    private List<List<String>> boards;
+    private Long budgetMs;
+    private String dictionary;
+
+    public MultiBoardRequest() {}
+
+    public MultiBoardRequest(List<String> guesses, List<List<String>> boards) {
+        this.guesses = guesses;
+        this.boards = boards;
+    }
+
+    public List<String> getGuesses() {
+        return guesses;
+    }
+
+    public void setGuesses(List<String> guesses) {
+        this.guesses = guesses;
+    }
+
+    public List<List<String>> getBoards() {
+        return boards;
+    }
+
+    public void setBoards(List<List<String>> boards) {
+        this.boards = boards;
+    }
+
+    public Long getBudgetMs() {
+        return budgetMs;
+    }
+
+    public void setBudgetMs(Long budgetMs) {
+        this.budgetMs = budgetMs;
+    }
+
+    public String getDictionary() {
+        return dictionary;
+    }
+
+    public void setDictionary(String dictionary) {
+        this.dictionary = dictionary;
+    }
+}
@@ -0,0 +1,22 @@
+package com.yiranhu.wordle.model;
+
+import java.util.List;
+
+public class MultiBoardResponse extends WordleResponse {
+    private List<BoardState> boards;
+
+    public MultiBoardResponse() {}
+
+    public MultiBoardResponse(List<String> suggestions, String message, boolean success, List<BoardState> boards) {
+        super(suggestions, message, success);
+        this.boards = boards;
+    }
+
+    public List<BoardState> getBoards() {
+        return boards;
+    }
+
+    public void setBoards(List<BoardState> boards) {
+        this.boards = boards;
+    }
+}
@@ -0,0 +1,39 @@
+package com.yiranhu.wordle.model;
+
+public class RankedSuggestion {
+    private String word;
+    private double score;
+    private boolean possibleAnswer;
+
+    public RankedSuggestion() {}
+
+    public RankedSuggestion(String word, double score, boolean possibleAnswer) {
+        this.word = word;
+        this.score = score;
+        this.possibleAnswer = possibleAnswer;
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    public void setWord(String word) {
+        this.word = word;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public boolean isPossibleAnswer() {
+        return possibleAnswer;
+    }
+
+    public void setPossibleAnswer(boolean possibleAnswer) {
+        this.possibleAnswer = possibleAnswer;
+    }
+}
@@ -0,0 +1,33 @@
+package com.yiranhu.wordle.model;
+
+/** Result cache statistics of the solver, with the solves it answered without ranking them itself. */
+public class SolverCacheStatistics extends CacheStatistics {
+    // Solves that shared the ranking of an identical one in progress instead of ranking again
+    private long coalesced;
+    // Solves answered from a ranking done ahead after the previous turn
+    private long speculated;
+
+    public SolverCacheStatistics() {}
+
+    public SolverCacheStatistics(long size, long hits, long misses, long evictions, double hitRate, long coalesced, long speculated) {
+        super(size, hits, misses, evictions, hitRate);
+        this.coalesced = coalesced;
+        this.speculated = speculated;
+    }
+
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public void setCoalesced(long coalesced) {
+        this.coalesced = coalesced;
+    }
+
+    public long getSpeculated() {
+        return speculated;
+    }
+
+    public void setSpeculated(long speculated) {
+        this.speculated = speculated;
+    }
+}
@@ -1,8 +1,13 @@
 package com.yiranhu.wordle.model;
 
+import java.util.List;
+
 public class WordleRequest {
     private String word;
     private String hints;
+    private List<GuessFeedback> history;
+    private Long budgetMs;
+    private String dictionary;
 
     public WordleRequest() {}
 
@@ -26,4 +31,28 @@ public class WordleRequest {
     public void setHints(String hints) {
         this.hints = hints;
     }
+
+    public List<GuessFeedback> getHistory() {
+        return history;
+    }
+
+    public void setHistory(List<GuessFeedback> history) {
+        this.history = history;
+    }
+
+    public Long getBudgetMs() {
+        return budgetMs;
+    }
+
+    public void setBudgetMs(Long budgetMs) {
+        this.budgetMs = budgetMs;
+    }
+
+    public String getDictionary() {
+        return dictionary;
+    }
+
+    public void setDictionary(String dictionary) {
+        this.dictionary = dictionary;
+    }
 }
@@ -4,8 +4,10 @@ import java.util.List;
 
 public class WordleResponse {
     private List<String> suggestions;
+    private List<RankedSuggestion> rankedSuggestions;
     private String message;
     private boolean success;
+    private boolean complete = true;
 
     public WordleResponse() {}
 
@@ -23,6 +25,14 @@ public class WordleResponse {
         this.suggestions = suggestions;
     }
 
+    public List<RankedSuggestion> getRankedSuggestions() {
+        return rankedSuggestions;
+    }
+
+    public void setRankedSuggestions(List<RankedSuggestion> rankedSuggestions) {
+        this.rankedSuggestions = rankedSuggestions;
+    }
+
     public String getMessage() {
         return message;
     }
@@ -38,4 +48,12 @@ public class WordleResponse {
     public void setSuccess(boolean success) {
         this.success = success;
     }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
 }
@@ -0,0 +1,182 @@
+package com.yiranhu.wordle.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.yiranhu.wordle.model.BatchSolveResponse;
+import com.yiranhu.wordle.model.WordleRequest;
+import com.yiranhu.wordle.model.WordleResponse;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Solves a stream of requests (a JSON array or NDJSON) in parallel and writes one NDJSON
+ * line per result as soon as it finishes. At most {@code maxInFlight} requests are parsed
+ * but not yet written, so memory stays flat however large the batch is: the input is
+ * only read further once a slot frees up.
+ *
+ * <p>Batches run on their own pool rather than on {@link SolverExecutor}, so at most
+ * {@code maxConcurrent} of them run at once: batch work in flight never exceeds
+ * {@code maxConcurrent * maxInFlight} requests and cannot crowd out interactive solves.
+ * A batch beyond that is turned away before it starts, see {@link #admit()}.
+ */
+@Service
+public class BatchSolveService {
+
+    private final WordleSolver wordleSolver;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final int maxSize;
+    private final Semaphore running;
+    private final Duration retryAfter;
+
+    public BatchSolveService(WordleSolver wordleSolver, ObjectMapper objectMapper,
+                             @Value("${wordle.batch.threads:0}") int threads,
+                             @Value("${wordle.batch.max-in-flight:64}") int maxInFlight,
+                             @Value("${wordle.batch.max-size:100000}") int maxSize,
+                             @Value("${wordle.batch.max-concurrent:2}") int maxConcurrent,
+                             @Value("${wordle.executor.retry-after:1s}") Duration retryAfter) {
+        this.wordleSolver = wordleSolver;
+        this.reader = objectMapper.readerFor(WordleRequest.class);
+        this.writer = objectMapper.writerFor(BatchSolveResponse.class);
+        this.maxInFlight = maxInFlight;
+        this.maxSize = maxSize;
+        this.running = new Semaphore(Math.max(maxConcurrent, 1));
+        this.retryAfter = retryAfter;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), task -> {
+            Thread thread = new Thread(task, "wordle-batch-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Takes one of the batch slots for a batch that is about to be solved, to be given back by
+     * {@link #solve}; throws {@link SolverUnavailableException} if every slot is taken.
+     */
+    public void admit() {
+        if (!running.tryAcquire()) {
+            throw new SolverUnavailableException(SolverUnavailableException.Reason.OVERLOADED,
+                    "Too many batches are being solved, please retry later", retryAfter);
+        }
+    }
+
+    /** Solves a batch {@link #admit() admitted} before, giving its slot back when done. */
+    public void solve(InputStream in, OutputStream out) throws IOException {
+        try {
+            solveAdmitted(in, out);
+        } finally {
+            running.release();
+        }
+    }
+
+    private void solveAdmitted(InputStream in, OutputStream out) throws IOException {
+        CompletionService<BatchSolveResponse> completion = new ExecutorCompletionService<>(executor);
+        int inFlight = 0;
+        int index = 0;
+
+        try (MappingIterator<WordleRequest> requests = reader.readValues(in)) {
+            while (true) {
+                WordleRequest request;
+                try {
+                    if (!requests.hasNextValue()) {
+                        break;
+                    }
+                    if (index >= maxSize) {
+                        write(out, error(index, "Batch limit of " + maxSize + " requests exceeded; remaining requests were not processed"));
+                        break;
+                    }
+                    request = requests.nextValue();
+                } catch (JsonProcessingException e) {
+                    // Malformed input ends the batch; results already submitted are still written
+                    write(out, error(index, "Invalid batch input: " + e.getOriginalMessage()));
+                    break;
+                }
+                int position = index++;
+                completion.submit(() -> solve(position, request));
+                inFlight++;
+
+                // Backpressure: stop reading until a slot frees up, and flush whatever is done
+                int written = 0;
+                if (inFlight >= maxInFlight) {
+                    write(out, take(completion));
+                    inFlight--;
+                    written++;
+                }
+                for (Future<BatchSolveResponse> done; (done = completion.poll()) != null; inFlight--) {
+                    write(out, get(done));
+                    written++;
+                }
+                if (written > 0) {
+                    out.flush();
+                }
+            }
+            for (; inFlight > 0; inFlight--) {
+                write(out, take(completion));
+            }
+            out.flush();
+        }
+    }
+
+    // The batch is already streaming, so a request that cannot be solved now is reported on its own line
+    private BatchSolveResponse solve(int index, WordleRequest request) {
+        try {
+            return new BatchSolveResponse(index, wordleSolver.solve(request));
+        } catch (SolverUnavailableException e) {
+            return error(index, e.getMessage());
+        }
+    }
+
+    private static BatchSolveResponse error(int index, String message) {
+        return new BatchSolveResponse(index, new WordleResponse(null, message, false));
+    }
+
+    private static BatchSolveResponse take(CompletionService<BatchSolveResponse> completion) throws IOException {
+        try {
+            return get(completion.take());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for batch results", e);
+        }
+    }
+
+    private static BatchSolveResponse get(Future<BatchSolveResponse> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for batch results", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Batch request failed", e.getCause());
+        }
+    }
+
+    private void write(OutputStream out, BatchSolveResponse response) throws IOException {
+        out.write(writer.writeValueAsBytes(response));
+        out.write('\n');
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
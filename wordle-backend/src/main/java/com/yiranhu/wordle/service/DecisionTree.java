@@ -0,0 +1,149 @@
+package com.yiranhu.wordle.service;
+
+import com.yiranhu.wordle.model.GuessFeedback;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * A precomputed strategy: node 0 holds the opening guess, and each node's children are
+ * keyed by the feedback pattern that guess can receive. Nodes are flat arrays, so following
+ * a game is one binary search per turn. Built offline by {@link DecisionTreeBuilder}.
+ *
+ * <p>File layout (big-endian): magic "WDLT", version, dictionary fingerprint, node and edge
+ * counts, then per node its guess, answer count and first edge, then per edge its pattern
+ * byte and child node.
+ */
+public final class DecisionTree {
+
+    private static final int MAGIC = 0x57444C54; // "WDLT"
+    private static final int VERSION = 1;
+
+    private final long fingerprint;
+    private final int[] guesses;
+    private final int[] sizes;
+    // Edges of node n are edgeStart[n] until edgeStart[n + 1], sorted by pattern
+    private final int[] edgeStart;
+    private final byte[] edgePatterns;
+    private final int[] edgeChildren;
+
+    DecisionTree(long fingerprint, int[] guesses, int[] sizes, int[] edgeStart, byte[] edgePatterns, int[] edgeChildren) {
+        this.fingerprint = fingerprint;
+        this.guesses = guesses;
+        this.sizes = sizes;
+        this.edgeStart = edgeStart;
+        this.edgePatterns = edgePatterns;
+        this.edgeChildren = edgeChildren;
+    }
+
+    /** Fingerprint of the dictionary the tree was built for; see {@link PatternMatrix}. */
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    public int nodes() {
+        return guesses.length;
+    }
+
+    /** Dictionary index of the guess to play at {@code node}. */
+    public int guess(int node) {
+        return guesses[node];
+    }
+
+    /** Number of answers still possible at {@code node}. */
+    public int size(int node) {
+        return sizes[node];
+    }
+
+    /** The node reached from {@code node} after {@code pattern}, or -1 if the tree has none. */
+    public int child(int node, int pattern) {
+        int low = edgeStart[node];
+        int high = edgeStart[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int p = edgePatterns[mid] & 0xFF;
+            if (p < pattern) {
+                low = mid + 1;
+            } else if (p > pattern) {
+                high = mid - 1;
+            } else {
+                return edgeChildren[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Follows a game from the root. Returns the node for the next guess, or -1 as soon as a
+     * played word differs from the tree's guess or its feedback leads off the tree.
+     * Turns must already be validated, e.g. by {@link WordleSolver#parseHistory(List)}.
+     */
+    public int walk(List<GuessFeedback> history, PackedWords words) {
+        int node = 0;
+        for (GuessFeedback turn : history) {
+            if (words.code(guesses[node]) != PackedWords.encode(turn.getWord())) {
+                return -1;
+            }
+            node = child(node, Feedback.parse(turn.getHints().split(" ")));
+            if (node < 0) {
+                return -1;
+            }
+        }
+        return node;
+    }
+
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeLong(fingerprint);
+        data.writeInt(guesses.length);
+        data.writeInt(edgePatterns.length);
+        for (int node = 0; node < guesses.length; node++) {
+            data.writeShort(guesses[node]);
+            data.writeShort(sizes[node]);
+            data.writeInt(edgeStart[node]);
+        }
+        data.write(edgePatterns);
+        for (int child : edgeChildren) {
+            data.writeInt(child);
+        }
+        data.flush();
+    }
+
+    public static DecisionTree read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IOException("Not a decision tree file, or an unsupported version");
+        }
+        long fingerprint = data.readLong();
+        int nodes = data.readInt();
+        int edges = data.readInt();
+        int[] guesses = new int[nodes];
+        int[] sizes = new int[nodes];
+        int[] edgeStart = new int[nodes + 1];
+        for (int node = 0; node < nodes; node++) {
+            guesses[node] = data.readUnsignedShort();
+            sizes[node] = data.readUnsignedShort();
+            edgeStart[node] = data.readInt();
+        }
+        edgeStart[nodes] = edges;
+        byte[] edgePatterns = new byte[edges];
+        data.readFully(edgePatterns);
+        int[] edgeChildren = new int[edges];
+        for (int edge = 0; edge < edges; edge++) {
+            edgeChildren[edge] = data.readInt();
+        }
+        return new DecisionTree(fingerprint, guesses, sizes, edgeStart, edgePatterns, edgeChildren);
+    }
+
+    @Override
+    public String toString() {
+        return "DecisionTree[nodes=" + guesses.length + ", edges=" + edgePatterns.length
+                + ", fingerprint=" + Long.toHexString(fingerprint) + ", root=" + (guesses.length > 0 ? guesses[0] : -1) + "]";
+    }
+}
@@ -0,0 +1,216 @@
+package com.yiranhu.wordle.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline search for a strategy tree that minimizes the total number of guesses over all
+ * answers. At each node the {@code beam} best guesses by expected information are tried
+ * (branch and bound: a guess is dropped once its cost, with a lower bound of {@code 2n - 1}
+ * for every unsolved group of {@code n} answers, reaches the best found), and finished
+ * subtrees are memoized by their answer set so a group reached through different guesses
+ * is solved once. Tree edges store patterns as bytes, so words have at most five letters.
+ */
+public final class DecisionTreeBuilder {
+
+    private final PatternMatrix patterns;
+    private final GuessRanker ranker;
+    private final int beam;
+    private final int blocks;
+    private final int allGreen;
+    private final Map<AnswerSet, Plan> memo = new HashMap<>();
+
+    public DecisionTreeBuilder(PatternMatrix patterns, GuessRanker ranker, int beam) {
+        if (patterns.guesses() > 0xFFFF) {
+            throw new IllegalArgumentException("Decision trees support at most 65535 words");
+        }
+        if (patterns.isWide()) {
+            throw new IllegalArgumentException("Decision trees support words of at most " + SolveConstraints.LEN + " letters");
+        }
+        this.patterns = patterns;
+        this.ranker = ranker;
+        this.beam = beam;
+        this.blocks = (patterns.answers() + 63) >>> 6;
+        this.allGreen = patterns.patternCount() - 1;
+    }
+
+    /** Builds the tree over every answer, starting from {@code opener}, or the best opener found if -1. */
+    public DecisionTree build(long fingerprint, int opener) {
+        int[] answers = new int[patterns.answers()];
+        for (int i = 0; i < answers.length; i++) {
+            answers[i] = i;
+        }
+        Plan root = opener < 0 ? solve(answers) : plan(opener, answers, Integer.MAX_VALUE);
+        return flatten(fingerprint, root);
+    }
+
+    /** Average number of guesses per answer when every game follows {@code tree}. */
+    public static double averageGuesses(DecisionTree tree) {
+        long total = 0;
+        int answers = tree.size(0);
+        // Every node's guess is played once for each answer still possible there
+        for (int node = 0; node < tree.nodes(); node++) {
+            total += tree.size(node);
+        }
+        return answers == 0 ? 0 : (double) total / answers;
+    }
+
+    private Plan solve(int[] answers) {
+        int n = answers.length;
+        if (n == 1) {
+            return new Plan(answers[0], 1, 1, new int[0], new Plan[0]);
+        }
+        AnswerSet key = new AnswerSet(answers);
+        Plan best = memo.get(key);
+        if (best != null) {
+            return best;
+        }
+        if (n == 2) {
+            best = plan(answers[0], answers, Integer.MAX_VALUE);
+        } else {
+            for (RankedGuess candidate : ranker.rank(bitmap(answers), beam)) {
+                Plan plan = plan(candidate.guess(), answers, best == null ? Integer.MAX_VALUE : best.cost);
+                if (plan != null && (best == null || plan.cost < best.cost)) {
+                    best = plan;
+                    if (best.cost == 2 * n - 1) {
+                        break; // every other answer is isolated: nothing can do better
+                    }
+                }
+            }
+            if (best == null) {
+                // Guessing an answer always makes progress, so this ends any search
+                best = plan(answers[0], answers, Integer.MAX_VALUE);
+            }
+        }
+        memo.put(key, best);
+        return best;
+    }
+
+    /** The plan that opens with {@code guess}, or null if it cannot beat {@code bound}. */
+    private Plan plan(int guess, int[] answers, int bound) {
+        int[] counts = new int[patterns.patternCount()];
+        int offset = patterns.rowOffset(guess);
+        for (int answer : answers) {
+            counts[patterns.patternAt(offset + answer)]++;
+        }
+        int groups = 0;
+        int cost = answers.length;
+        for (int p = 0; p < allGreen; p++) {
+            if (counts[p] > 0) {
+                groups++;
+                cost += 2 * counts[p] - 1;
+            }
+        }
+        if (cost >= bound || (groups == 1 && counts[allGreen] == 0)) {
+            return null; // cannot win, or splits nothing
+        }
+
+        int[][] buckets = new int[patterns.patternCount()][];
+        int[] fill = new int[patterns.patternCount()];
+        for (int p = 0; p < allGreen; p++) {
+            if (counts[p] > 0) {
+                buckets[p] = new int[counts[p]];
+            }
+        }
+        for (int answer : answers) {
+            int p = patterns.patternAt(offset + answer);
+            if (p != allGreen) {
+                buckets[p][fill[p]++] = answer;
+            }
+        }
+
+        int[] edgePatterns = new int[groups];
+        Plan[] children = new Plan[groups];
+        int edge = 0;
+        for (int p = 0; p < allGreen; p++) {
+            if (buckets[p] == null) {
+                continue;
+            }
+            Plan child = solve(buckets[p]);
+            // Swap the lower bound for the exact cost
+            cost += child.cost - (2 * buckets[p].length - 1);
+            if (cost >= bound) {
+                return null;
+            }
+            edgePatterns[edge] = p;
+            children[edge++] = child;
+        }
+        return new Plan(guess, answers.length, cost, edgePatterns, children);
+    }
+
+    private long[] bitmap(int[] answers) {
+        long[] set = new long[blocks];
+        for (int answer : answers) {
+            set[answer >>> 6] |= 1L << answer;
+        }
+        return set;
+    }
+
+    private static DecisionTree flatten(long fingerprint, Plan root) {
+        // Breadth-first numbering, so the root is node 0
+        Map<Plan, Integer> ids = new IdentityHashMap<>();
+        List<Plan> order = new ArrayList<>();
+        ids.put(root, 0);
+        order.add(root);
+        int edges = 0;
+        for (int i = 0; i < order.size(); i++) {
+            Plan plan = order.get(i);
+            edges += plan.children.length;
+            for (Plan child : plan.children) {
+                if (!ids.containsKey(child)) {
+                    ids.put(child, order.size());
+                    order.add(child);
+                }
+            }
+        }
+
+        int nodes = order.size();
+        int[] guesses = new int[nodes];
+        int[] sizes = new int[nodes];
+        int[] edgeStart = new int[nodes + 1];
+        byte[] edgePatterns = new byte[edges];
+        int[] edgeChildren = new int[edges];
+        int edge = 0;
+        for (int node = 0; node < nodes; node++) {
+            Plan plan = order.get(node);
+            guesses[node] = plan.guess;
+            sizes[node] = plan.size;
+            edgeStart[node] = edge;
+            for (int c = 0; c < plan.children.length; c++) {
+                edgePatterns[edge] = (byte) plan.patterns[c];
+                edgeChildren[edge++] = ids.get(plan.children[c]);
+            }
+        }
+        edgeStart[nodes] = edge;
+        return new DecisionTree(fingerprint, guesses, sizes, edgeStart, edgePatterns, edgeChildren);
+    }
+
+    /** A subtree: its guess, answer count, total guesses over its answers, and children by pattern. */
+    private record Plan(int guess, int size, int cost, int[] patterns, Plan[] children) {}
+
+    /** Memo key: a sorted answer set with its hash computed once. */
+    private static final class AnswerSet {
+
+        private final int[] answers;
+        private final int hash;
+
+        AnswerSet(int[] answers) {
+            this.answers = answers;
+            this.hash = Arrays.hashCode(answers);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof AnswerSet other && hash == other.hash && Arrays.equals(answers, other.answers);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
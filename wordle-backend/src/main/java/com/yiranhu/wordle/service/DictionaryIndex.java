@@ -0,0 +1,251 @@
+package com.yiranhu.wordle.service;
+
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only bitmap index over a word list, built once at startup. Bit {@code i} of
+ * every bitmap refers to {@code words.get(i)}, so a constraint resolves to a handful
+ * of word-parallel AND / ANDNOT operations and words are only materialized at the end.
+ * There are two bitmaps per letter and position, so the index grows with the word length.
+ */
+public final class DictionaryIndex {
+
+    private static final int LETTERS = 26;
+    // Candidate sets this small are finished by testing each word instead of more bitmaps
+    private static final int PROBE_LIMIT = 4;
+
+    private final PackedWords words;
+    private final int length;
+    // First of the "at least k" bitmaps, after the length * 26 positional ones
+    private final int atLeast;
+    private final int blocks;
+    private final long[] all;
+    // [position * 26 + letter]: words with that letter at that position, then from
+    // atLeast + letter * length + (k - 1): words containing the letter at least k times
+    private final long[][] bitmaps;
+    private final int[] sizes;
+
+    private DictionaryIndex(PackedWords words) {
+        this.words = words;
+        this.length = words.length();
+        this.atLeast = length * LETTERS;
+        this.blocks = (words.size() + 63) >>> 6;
+        this.all = new long[blocks];
+        this.bitmaps = new long[2 * atLeast][blocks];
+        this.sizes = new int[bitmaps.length];
+    }
+
+    public static DictionaryIndex build(List<String> words) {
+        PackedWords packed = PackedWords.of(words);
+        DictionaryIndex index = new DictionaryIndex(packed);
+        int length = index.length;
+        int[] counts = new int[LETTERS];
+        for (int w = 0; w < packed.size(); w++) {
+            long word = packed.code(w);
+            int block = w >>> 6;
+            long bit = 1L << w;
+            index.all[block] |= bit;
+
+            for (int i = 0; i < length; i++) {
+                int letter = PackedWords.letter(word, i);
+                index.bitmaps[i * LETTERS + letter][block] |= bit;
+                counts[letter]++;
+                index.bitmaps[index.atLeast + letter * length + counts[letter] - 1][block] |= bit;
+            }
+            for (int i = 0; i < length; i++) {
+                counts[PackedWords.letter(word, i)] = 0;
+            }
+        }
+        for (int id = 0; id < index.bitmaps.length; id++) {
+            index.sizes[id] = count(index.bitmaps[id]);
+        }
+        return index;
+    }
+
+    /** Index over {@code words} with the bitmaps written by {@link #write(LongBuffer)}. */
+    static DictionaryIndex read(PackedWords words, LongBuffer in) {
+        DictionaryIndex index = new DictionaryIndex(words);
+        for (int w = 0; w < words.size(); w++) {
+            index.all[w >>> 6] |= 1L << w;
+        }
+        for (int id = 0; id < index.bitmaps.length; id++) {
+            in.get(index.bitmaps[id]);
+            index.sizes[id] = count(index.bitmaps[id]);
+        }
+        return index;
+    }
+
+    void write(LongBuffer out) {
+        for (long[] bitmap : bitmaps) {
+            out.put(bitmap);
+        }
+    }
+
+    /** Longs {@link #write(LongBuffer)} takes for {@code size} words of {@code length} letters. */
+    static long bitmapLongs(int length, int size) {
+        return 2L * length * LETTERS * ((size + 63) >>> 6);
+    }
+
+    public PackedWords words() {
+        return words;
+    }
+
+    public int size() {
+        return words.size();
+    }
+
+    /** Letters per word. */
+    public int length() {
+        return length;
+    }
+
+    /** Approximate heap footprint of the bitmaps. */
+    long bytes() {
+        return 8L * blocks * (bitmaps.length + 1) + 4L * sizes.length;
+    }
+
+    /**
+     * Returns the bitmap of words matching the constraints. Required bitmaps are applied
+     * smallest first and exclusions largest first, so the set shrinks as fast as possible;
+     * once only a few words are left they are checked against the constraints directly.
+     */
+    public long[] filter(SolveConstraints constraints) {
+        return filter(constraints, all);
+    }
+
+    /** Like {@link #filter(SolveConstraints)}, but only considers the words already in {@code within}. */
+    public long[] filter(SolveConstraints constraints, long[] within) {
+        if (constraints.length() != length) {
+            throw new IllegalArgumentException("Word must be exactly " + length + " letters");
+        }
+        if (constraints.isContradictory()) {
+            return new long[blocks];
+        }
+
+        long[] required = new long[length + LETTERS];
+        int requiredCount = 0;
+        long[] excluded = new long[LETTERS + length * LETTERS];
+        int excludedCount = 0;
+
+        for (int i = 0; i < length; i++) {
+            if (constraints.isSure(i)) {
+                required[requiredCount++] = op(i * LETTERS + constraints.sureLetter(i) - 'a');
+            }
+            int unsure = constraints.unsureMask(i);
+            for (int letter = 0; letter < LETTERS; letter++) {
+                if ((unsure & (1 << letter)) != 0) {
+                    excluded[excludedCount++] = op(i * LETTERS + letter);
+                }
+            }
+        }
+        // Letter counts: at least min occurrences, and not max + 1 or more
+        for (int letter = 0; letter < LETTERS; letter++) {
+            int min = constraints.minCount((char) ('a' + letter));
+            int max = constraints.maxCount((char) ('a' + letter));
+            if (min > 0) {
+                required[requiredCount++] = op(atLeast + letter * length + min - 1);
+            }
+            if (max < length) {
+                excluded[excludedCount++] = op(atLeast + letter * length + max);
+            }
+        }
+        // ops sort by bitmap size: ascending for required, so iterate excluded backwards
+        Arrays.sort(required, 0, requiredCount);
+        Arrays.sort(excluded, 0, excludedCount);
+
+        long[] result = within.clone();
+        for (int r = 0; r < requiredCount; r++) {
+            if (count(result) <= PROBE_LIMIT) {
+                return probe(result, constraints);
+            }
+            and(result, bitmaps[id(required[r])]);
+        }
+        for (int e = excludedCount - 1; e >= 0; e--) {
+            if (count(result) <= PROBE_LIMIT) {
+                return probe(result, constraints);
+            }
+            andNot(result, bitmaps[id(excluded[e])]);
+        }
+        return result;
+    }
+
+    private long op(int id) {
+        return ((long) sizes[id] << 32) | id;
+    }
+
+    private static int id(long op) {
+        return (int) op;
+    }
+
+    // Tests each remaining word in one pass, cheaper than the bitmap operations still to go
+    private long[] probe(long[] result, SolveConstraints constraints) {
+        for (int b = 0; b < result.length; b++) {
+            for (long block = result[b]; block != 0; block &= block - 1) {
+                int word = (b << 6) + Long.numberOfTrailingZeros(block);
+                if (!constraints.matches(words.code(word), words.letters(word))) {
+                    result[b] &= ~(1L << word);
+                }
+            }
+        }
+        return result;
+    }
+
+    public static boolean contains(long[] set, int index) {
+        return (set[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public long[] at(int position, char letter) {
+        return bitmaps[position * LETTERS + (letter - 'a')];
+    }
+
+    public long[] atLeast(char letter, int count) {
+        return bitmaps[atLeast + (letter - 'a') * length + count - 1];
+    }
+
+    public long[] all() {
+        return all.clone();
+    }
+
+    public static int count(long[] set) {
+        int count = 0;
+        for (long block : set) {
+            count += Long.bitCount(block);
+        }
+        return count;
+    }
+
+    /** Intersects {@code set} with {@code other} in place; returns false once the set is empty. */
+    public static boolean and(long[] set, long[] other) {
+        long any = 0;
+        for (int b = 0; b < set.length; b++) {
+            set[b] &= other[b];
+            any |= set[b];
+        }
+        return any != 0;
+    }
+
+    public static void andNot(long[] set, long[] other) {
+        for (int b = 0; b < set.length; b++) {
+            set[b] &= ~other[b];
+        }
+    }
+
+    public List<String> materialize(long[] set, int limit) {
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        for (int b = 0; b < set.length && result.size() < limit; b++) {
+            long block = set[b];
+            while (block != 0 && result.size() < limit) {
+                result.add(words.get((b << 6) + Long.numberOfTrailingZeros(block)));
+                block &= block - 1;
+            }
+        }
+        return result;
+    }
+
+    public List<String> materialize(long[] set) {
+        return materialize(set, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,518 @@
+package com.yiranhu.wordle.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Named dictionaries. {@code default} is bundled with the app ({@code wordle-answers.txt});
+ * more are loaded from subdirectories of {@code wordle.dictionary.dir}, each holding an
+ * {@code answers.txt}, an optional {@code guesses.txt} of words that are allowed as guesses
+ * but never the answer, and an optional strategy tree {@code tree.bin}. A subdirectory named
+ * {@code default} replaces the bundled list.
+ *
+ * <p>The bundled dictionary is normally mapped from a {@link DictionarySnapshot} written by the
+ * build, so startup skips parsing its word list and building its indexes.
+ *
+ * <p>Dictionaries may have words of {@value SolveConstraints#MIN_LEN} to
+ * {@value SolveConstraints#MAX_LEN} letters. Five-letter dictionaries and the default are
+ * built at startup; the indexes and pattern matrix of the others are built on the loader
+ * thread once they are registered, and requests that play them before then are turned away
+ * with {@link SolverUnavailableException} instead of waiting. Requests that name no dictionary
+ * get the default, or for words of another length the first dictionary (by name) of that
+ * length.
+ *
+ * <p>The directory is watched: when a dictionary's files change it is rebuilt on a
+ * background thread (pattern matrix included) and then swapped in with a single map write.
+ * Requests hold on to the {@link WordleDictionary} they started with, so none of them sees a
+ * half-built dictionary, and a dictionary that fails to load keeps its previous version.
+ */
+@Service
+public class DictionaryRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(DictionaryRegistry.class);
+
+    public static final String BUNDLED = "default";
+    static final String ANSWERS = "answers.txt";
+    static final String GUESSES = "guesses.txt";
+    static final String TREE = "tree.bin";
+
+    // Dictionary names double as file name parts
+    private static final Pattern NAME = Pattern.compile("[a-z0-9][a-z0-9_-]*");
+
+    private final Path patternsFile;
+    private final String snapshotFile;
+    private final String treeFile;
+    private final Path dir;
+    private final String defaultName;
+    private final long reloadDelayMs;
+    private final ForkJoinPool pool;
+    private final Map<String, WordleDictionary> dictionaries = new ConcurrentHashMap<>();
+    // Word lengths of the dictionaries above, recomputed whenever one is added, replaced or removed
+    private volatile Set<Integer> lengths = Set.of();
+    private final List<Consumer<WordleDictionary>> retiredListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService loader;
+    private final Map<String, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+    private WatchService watchService;
+
+    @Autowired
+    public DictionaryRegistry(@Value("${wordle.patterns.file}") String patternsFile,
+                              @Value("${wordle.ranker.parallelism:0}") int parallelism,
+                              @Value("${wordle.snapshot.file:}") String snapshotFile,
+                              @Value("${wordle.tree.file:}") String treeFile,
+                              @Value("${wordle.dictionary.dir:}") String dir,
+                              @Value("${wordle.dictionary.default:default}") String defaultName,
+                              @Value("${wordle.dictionary.watch:true}") boolean watch,
+                              @Value("${wordle.dictionary.reload-delay:500ms}") Duration reloadDelay) {
+        this.patternsFile = Paths.get(patternsFile);
+        this.snapshotFile = snapshotFile;
+        this.treeFile = treeFile;
+        this.dir = dir.isEmpty() ? null : Paths.get(dir);
+        this.defaultName = defaultName;
+        this.reloadDelayMs = reloadDelay.toMillis();
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.loader = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "wordle-dictionary-loader");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        dictionaries.put(BUNDLED, bundled());
+        updateLengths();
+        if (this.dir != null) {
+            for (String name : subdirectories()) {
+                load(name);
+            }
+            if (watch) {
+                startWatching();
+            }
+        }
+        if (!dictionaries.containsKey(defaultName)) {
+            throw new IllegalStateException("Default dictionary '" + defaultName + "' not found in " + this.dir);
+        }
+        log.info("Dictionaries: {}", all());
+    }
+
+    /** A registry holding only the bundled dictionary, for tools and benchmarks outside Spring. */
+    public static DictionaryRegistry bundled(String patternsFile, int parallelism, String treeFile) {
+        return new DictionaryRegistry(patternsFile, parallelism, "", treeFile, "", BUNDLED, false, Duration.ZERO);
+    }
+
+    /** The default dictionary. */
+    public WordleDictionary get() {
+        return get(null);
+    }
+
+    /** The current version of dictionary {@code name}, or the default for null or blank. */
+    public WordleDictionary get(String name) {
+        String key = name == null || name.isBlank() ? defaultName : name;
+        WordleDictionary dictionary = dictionaries.get(key);
+        if (dictionary == null) {
+            throw new IllegalArgumentException("Unknown dictionary '" + name + "', expected one of " + names());
+        }
+        return dictionary;
+    }
+
+    /**
+     * Dictionary {@code name} if given, otherwise the dictionary for words of {@code length}
+     * letters; a length no dictionary has raises {@link IllegalArgumentException}.
+     */
+    public WordleDictionary get(String name, int length) {
+        if (name != null && !name.isBlank()) {
+            return get(name);
+        }
+        WordleDictionary preferred = get();
+        if (preferred.length() == length) {
+            return preferred;
+        }
+        for (WordleDictionary dictionary : all()) {
+            if (dictionary.length() == length) {
+                return dictionary;
+            }
+        }
+        throw new IllegalArgumentException(expectedLength());
+    }
+
+    /** Rejects word lengths that no dictionary has, with the same message as {@link #get(String, int)}. */
+    public void checkLength(int length) {
+        if (!lengths().contains(length)) {
+            throw new IllegalArgumentException(expectedLength());
+        }
+    }
+
+    /** Word lengths of the current dictionaries, ascending. */
+    public Set<Integer> lengths() {
+        return lengths;
+    }
+
+    /** Memory held by the loaded dictionaries of {@code length}-letter words. */
+    public long bytes(int length) {
+        long bytes = 0;
+        for (WordleDictionary dictionary : dictionaries.values()) {
+            if (dictionary.length() == length) {
+                bytes += dictionary.bytes();
+            }
+        }
+        return bytes;
+    }
+
+    private String expectedLength() {
+        List<String> lengths = lengths().stream().map(String::valueOf).toList();
+        if (lengths.size() == 1) {
+            return "Word must be exactly " + lengths.get(0) + " letters";
+        }
+        return "Word must be " + String.join(", ", lengths.subList(0, lengths.size() - 1)) + " or " + lengths.get(lengths.size() - 1) + " letters";
+    }
+
+    public Optional<WordleDictionary> find(String name) {
+        return Optional.ofNullable(dictionaries.get(name));
+    }
+
+    public String defaultName() {
+        return defaultName;
+    }
+
+    /** Every current dictionary, by name. */
+    public List<WordleDictionary> all() {
+        List<WordleDictionary> all = new ArrayList<>(dictionaries.values());
+        all.sort(Comparator.comparing(WordleDictionary::name));
+        return all;
+    }
+
+    private List<String> names() {
+        return all().stream().map(WordleDictionary::name).toList();
+    }
+
+    /**
+     * Registers a callback for dictionary versions that were replaced or removed and are no
+     * longer served under any name, e.g. to drop cache entries computed from them.
+     */
+    public void onRetired(Consumer<WordleDictionary> listener) {
+        retiredListeners.add(listener);
+    }
+
+    /** Rebuilds dictionary {@code name} from the directory on the loader thread, after the reload delay. */
+    public void reload(String name) {
+        if (dir == null || !NAME.matcher(name).matches()) {
+            return;
+        }
+        // Editors and copies fire several events per change: only the last one triggers a rebuild
+        pending.compute(name, (key, previous) -> {
+            if (previous != null) {
+                previous.cancel(false);
+            }
+            return loader.schedule(() -> load(key), reloadDelayMs, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private WordleDictionary bundled() {
+        try {
+            byte[] answers = new ClassPathResource("wordle-answers.txt").getContentAsByteArray();
+            ClassPathResource guessResource = new ClassPathResource("wordle-guesses.txt");
+            byte[] guesses = guessResource.exists() ? guessResource.getContentAsByteArray() : null;
+            WordleDictionary dictionary = snapshot(DictionarySnapshot.source(answers, guesses)).orElse(null);
+            if (dictionary == null) {
+                List<String> allowed = guesses == null ? List.of() : readWords(new ByteArrayInputStream(guesses));
+                dictionary = WordleDictionary.build(BUNDLED, readWords(new ByteArrayInputStream(answers)), allowed, patternsFile, pool);
+            }
+            return withTree(dictionary, null);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read the bundled word list", e);
+        }
+    }
+
+    /**
+     * The bundled dictionary from {@code wordle.snapshot.file}: empty for the snapshot bundled
+     * by the build (copied next to the pattern matrix first when it is inside the jar), a file
+     * path, or "none" to always build it from the word list.
+     */
+    private Optional<WordleDictionary> snapshot(long source) {
+        if (snapshotFile.equals("none")) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        Path file;
+        try {
+            if (snapshotFile.isEmpty()) {
+                ClassPathResource resource = new ClassPathResource(DictionarySnapshot.RESOURCE);
+                if (!resource.exists()) {
+                    log.info("No dictionary snapshot bundled (it is written by mvn package), building the default dictionary");
+                    return Optional.empty();
+                }
+                if (resource.isFile()) {
+                    file = resource.getFile().toPath();
+                } else {
+                    file = patternsFile.resolveSibling(DictionarySnapshot.RESOURCE);
+                    try (InputStream in = resource.getInputStream()) {
+                        DictionarySnapshot.extract(in, file);
+                    }
+                }
+            } else {
+                file = Paths.get(snapshotFile);
+            }
+            Optional<WordleDictionary> dictionary = DictionarySnapshot.open(file, BUNDLED, source, pool);
+            if (dictionary.isEmpty()) {
+                log.warn("Dictionary snapshot {} was built from another word list, building the default dictionary; rebuild it with mvn package", file);
+            } else {
+                log.info("Mapped dictionary snapshot {} in {} ms", file, (System.nanoTime() - start) / 1_000_000);
+            }
+            return dictionary;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot use dictionary snapshot {}, building the default dictionary: {}",
+                    snapshotFile.isEmpty() ? DictionarySnapshot.RESOURCE : snapshotFile, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    // Loads or replaces dictionary name from its directory, or drops it if the directory is gone
+    private void load(String name) {
+        Path home = dir.resolve(name);
+        Path answersFile = home.resolve(ANSWERS);
+        if (!Files.isRegularFile(answersFile)) {
+            if (BUNDLED.equals(name)) {
+                swap(name, bundled());
+            } else {
+                WordleDictionary removed = dictionaries.remove(name);
+                updateLengths();
+                if (removed != null) {
+                    log.info("Dictionary '{}' removed", name);
+                    retire(removed);
+                }
+            }
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            List<String> answers = readWords(Files.newInputStream(answersFile));
+            Path guessesFile = home.resolve(GUESSES);
+            List<String> guesses = Files.isRegularFile(guessesFile) ? readWords(Files.newInputStream(guessesFile)) : List.of();
+            WordleDictionary dictionary = WordleDictionary.define(name, answers, guesses, patternsFile(name), pool);
+            // A reload of a dictionary that is being played is built right away, like the five-letter ones
+            WordleDictionary current = dictionaries.get(name);
+            if (dictionary.length() == SolveConstraints.LEN || name.equals(defaultName) || (current != null && current.isLoaded())) {
+                dictionary.load();
+            } else {
+                dictionary.loadAsync(loader);
+            }
+            dictionary = withTree(dictionary, home);
+            swap(name, dictionary);
+            log.info("{} {} in {} ms", dictionary.isLoaded() ? "Loaded" : "Registered", dictionary, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot load dictionary '{}' from {}, keeping the current version: {}", name, home, e.toString());
+        }
+    }
+
+    private void swap(String name, WordleDictionary next) {
+        WordleDictionary previous = dictionaries.put(name, next);
+        updateLengths();
+        if (previous != null) {
+            retire(previous);
+        }
+    }
+
+    // Only the constructor and the single loader thread change the dictionaries, so updates never race
+    private void updateLengths() {
+        Set<Integer> current = new TreeSet<>();
+        for (WordleDictionary dictionary : dictionaries.values()) {
+            current.add(dictionary.length());
+        }
+        lengths = Collections.unmodifiableSet(current);
+    }
+
+    private void retire(WordleDictionary previous) {
+        for (WordleDictionary current : dictionaries.values()) {
+            if (current.version() == previous.version()) {
+                return; // the same word lists are still served
+            }
+        }
+        for (Consumer<WordleDictionary> listener : retiredListeners) {
+            listener.accept(previous);
+        }
+    }
+
+    private Path patternsFile(String name) {
+        if (BUNDLED.equals(name)) {
+            return patternsFile;
+        }
+        String file = patternsFile.getFileName().toString();
+        int dot = file.lastIndexOf('.');
+        String stem = dot > 0 ? file.substring(0, dot) : file;
+        return patternsFile.resolveSibling(stem + "-" + name + (dot > 0 ? file.substring(dot) : ""));
+    }
+
+    /**
+     * Attaches a strategy tree: {@code tree.bin} in the dictionary's directory if present, and
+     * for {@code default} otherwise {@code wordle.tree.file} (empty for the bundled tree).
+     */
+    private WordleDictionary withTree(WordleDictionary dictionary, Path home) {
+        if (treeFile.equals("none") || dictionary.length() > SolveConstraints.LEN) {
+            return dictionary;
+        }
+        try (InputStream in = openTree(dictionary.name(), home)) {
+            if (in == null) {
+                return dictionary;
+            }
+            DecisionTree tree = DecisionTree.read(new BufferedInputStream(in));
+            if (tree.fingerprint() != dictionary.version()) {
+                log.warn("Ignoring decision tree for dictionary '{}' built for a different word list; rebuild it with the build-tree profile",
+                        dictionary.name());
+                return dictionary;
+            }
+            log.info("Loaded decision tree for dictionary '{}' with {} nodes", dictionary.name(), tree.nodes());
+            return dictionary.withTree(tree);
+        } catch (IOException e) {
+            log.info("No decision tree loaded for dictionary '{}' ({}); its requests are ranked live", dictionary.name(), e.getMessage());
+            return dictionary;
+        }
+    }
+
+    private InputStream openTree(String name, Path home) throws IOException {
+        if (home != null && Files.isRegularFile(home.resolve(TREE))) {
+            return Files.newInputStream(home.resolve(TREE));
+        }
+        if (!BUNDLED.equals(name)) {
+            return null;
+        }
+        return treeFile.isEmpty() ? new ClassPathResource("wordle-tree.bin").getInputStream() : Files.newInputStream(Paths.get(treeFile));
+    }
+
+    /** Lowercase words a-z of a supported length, one per line; anything else is skipped, as are repeats. */
+    static List<String> readWords(InputStream in) throws IOException {
+        Set<String> words = new LinkedHashSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String word = line.trim().toLowerCase();
+                if (word.length() >= SolveConstraints.MIN_LEN && word.length() <= SolveConstraints.MAX_LEN && word.chars().allMatch(c -> c >= 'a' && c <= 'z')) {
+                    words.add(word);
+                }
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    private List<String> subdirectories() {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir, Files::isDirectory)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (NAME.matcher(name).matches()) {
+                    names.add(name);
+                } else {
+                    log.warn("Skipping dictionary directory '{}': names are lowercase letters, digits, '-' and '_'", name);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read dictionary directory " + dir, e);
+        }
+        return names;
+    }
+
+    private void startWatching() {
+        try {
+            watchService = dir.getFileSystem().newWatchService();
+            register(dir);
+            for (String name : subdirectories()) {
+                register(dir.resolve(name));
+            }
+        } catch (IOException e) {
+            log.warn("Not watching {} for dictionary changes: {}", dir, e.getMessage());
+            return;
+        }
+        Thread watcher = new Thread(this::watch, "wordle-dictionary-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void register(Path path) throws IOException {
+        path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    private void watch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path watched = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    // Events were lost: rebuild everything that may have changed
+                    dictionaries.keySet().forEach(this::reload);
+                    subdirectories().forEach(this::reload);
+                } else if (watched.equals(dir)) {
+                    // A dictionary directory was added, removed or renamed
+                    Path changed = dir.resolve((Path) event.context());
+                    if (Files.isDirectory(changed)) {
+                        try {
+                            register(changed);
+                        } catch (IOException e) {
+                            log.warn("Not watching {}: {}", changed, e.getMessage());
+                        }
+                    }
+                    reload(changed.getFileName().toString());
+                } else {
+                    reload(watched.getFileName().toString());
+                }
+            }
+            key.reset();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("Closing the dictionary watcher failed", e);
+            }
+        }
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,197 @@
+package com.yiranhu.wordle.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+
+/**
+ * A built dictionary in one file: the packed answers and guesses, the bitmap index and the
+ * pattern matrix. Opening it maps the file read-only and copies out the words and bitmaps,
+ * so startup neither parses word lists nor builds indexes; the pattern matrix stays mapped.
+ *
+ * <p>The build writes one for the bundled dictionary ({@code mvn package} runs
+ * {@link #main(String[])}), bundled as {@value #RESOURCE}. The header records a checksum of
+ * the word list files it was built from, and a snapshot of other lists is never opened.
+ *
+ * <p>Layout, big-endian: a {@value #HEADER_BYTES}-byte header, the answer codes and guess
+ * codes as longs, the index bitmaps, then the pattern matrix rows.
+ */
+public final class DictionarySnapshot {
+
+    /** Classpath name of the bundled dictionary's snapshot. */
+    public static final String RESOURCE = "wordle-snapshot.bin";
+
+    private static final int MAGIC = 0x57444C53; // "WDLS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 40;
+
+    private DictionarySnapshot() {
+    }
+
+    /** Checksum of the word list files a dictionary is built from; {@code guesses} may be null. */
+    public static long source(byte[] answers, byte[] guesses) {
+        CRC32 crc = new CRC32();
+        crc.update(answers);
+        long answersCrc = crc.getValue();
+        crc.reset();
+        if (guesses != null) {
+            crc.update(guesses);
+        }
+        return (answersCrc << 32) ^ crc.getValue() ^ ((long) answers.length << 16);
+    }
+
+    /** Writes a loaded dictionary built from word list files with checksum {@code source}. */
+    public static void write(Path file, WordleDictionary dictionary, long source) throws IOException {
+        PackedWords answers = dictionary.answers();
+        PackedWords guesses = dictionary.guesses();
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putInt(VERSION).putInt(dictionary.length()).putInt(answers.size()).putInt(guesses.size()).putInt(0)
+                        .putLong(source).putLong(dictionary.version());
+                writeFully(channel, header.flip());
+
+                ByteBuffer words = ByteBuffer.allocate(8 * (answers.size() + guesses.size()));
+                LongBuffer codes = words.asLongBuffer();
+                for (int w = 0; w < answers.size(); w++) {
+                    codes.put(answers.code(w));
+                }
+                for (int w = 0; w < guesses.size(); w++) {
+                    codes.put(guesses.code(w));
+                }
+                writeFully(channel, words);
+
+                ByteBuffer bitmaps = ByteBuffer.allocate((int) (8 * DictionaryIndex.bitmapLongs(dictionary.length(), answers.size())));
+                dictionary.index().write(bitmaps.asLongBuffer());
+                writeFully(channel, bitmaps);
+
+                writeFully(channel, dictionary.patterns().data());
+                channel.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Maps the snapshot at {@code file} as dictionary {@code name}; empty if it was built from
+     * word lists other than {@code source}. The result has no strategy tree yet.
+     */
+    public static Optional<WordleDictionary> open(Path file, String name, long source, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            if (channel.read(header, 0) != HEADER_BYTES) {
+                throw new IOException("Truncated dictionary snapshot");
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a version " + VERSION + " dictionary snapshot");
+            }
+            int length = header.getInt();
+            int answerCount = header.getInt();
+            int guessCount = header.getInt();
+            header.getInt();
+            long builtFrom = header.getLong();
+            long version = header.getLong();
+            if (builtFrom != source) {
+                return Optional.empty();
+            }
+            if (channel.size() != size(length, answerCount, guessCount)) {
+                throw new IOException("Truncated dictionary snapshot");
+            }
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, channel.size() - HEADER_BYTES);
+
+            LongBuffer longs = data.asLongBuffer();
+            long[] answerCodes = new long[answerCount];
+            long[] guessCodes = new long[guessCount];
+            longs.get(answerCodes).get(guessCodes);
+            PackedWords answers = PackedWords.of(length, answerCodes);
+            // The guess list starts with the answers: share their packed form
+            PackedWords guesses = Arrays.equals(answerCodes, guessCodes) ? answers : PackedWords.of(length, guessCodes);
+            DictionaryIndex index = DictionaryIndex.read(answers, longs);
+
+            int patternsAt = 8 * (answerCount + guessCount) + (int) (8 * DictionaryIndex.bitmapLongs(length, answerCount));
+            ByteBuffer patterns = data.slice(patternsAt, data.capacity() - patternsAt);
+            return Optional.of(WordleDictionary.prebuilt(name, version, index, guesses,
+                    PatternMatrix.wrap(patterns, guessCount, answerCount, length), pool));
+        }
+    }
+
+    /**
+     * Copies the snapshot read from {@code in} to {@code file}, e.g. out of the application
+     * jar so that it can be mapped, unless {@code file} already holds the same snapshot.
+     */
+    public static void extract(InputStream in, Path file) throws IOException {
+        byte[] header = in.readNBytes(HEADER_BYTES);
+        if (header.length != HEADER_BYTES) {
+            throw new IOException("Truncated dictionary snapshot");
+        }
+        ByteBuffer fields = ByteBuffer.wrap(header, 8, 12);
+        long size = size(fields.getInt(), fields.getInt(), fields.getInt());
+        if (Files.isRegularFile(file) && Files.size(file) == size) {
+            try (InputStream current = Files.newInputStream(file)) {
+                if (Arrays.equals(current.readNBytes(HEADER_BYTES), header)) {
+                    return;
+                }
+            }
+        }
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp, StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.write(header);
+                in.transferTo(out);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static long size(int length, int answers, int guesses) {
+        return HEADER_BYTES + 8L * (answers + guesses) + 8 * DictionaryIndex.bitmapLongs(length, answers)
+                + PatternMatrix.size(guesses, answers, length);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /** Build step: {@code <snapshot file> <answers file> [<guesses file>]}; every file named must exist. */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: DictionarySnapshot <snapshot file> <answers file> [<guesses file>]");
+        }
+        long start = System.nanoTime();
+        Path file = Paths.get(args[0]);
+        byte[] answers = Files.readAllBytes(Paths.get(args[1]));
+        byte[] guesses = args.length > 2 ? Files.readAllBytes(Paths.get(args[2])) : null;
+        List<String> allowed = guesses == null ? List.of() : DictionaryRegistry.readWords(new ByteArrayInputStream(guesses));
+        WordleDictionary dictionary = WordleDictionary.build(DictionaryRegistry.BUNDLED,
+                DictionaryRegistry.readWords(new ByteArrayInputStream(answers)), allowed, null, ForkJoinPool.commonPool());
+        write(file, dictionary, source(answers, guesses));
+        System.out.printf("Wrote dictionary snapshot %s (%d answers, %d guesses, %d KB) in %d ms%n", file, dictionary.answerCount(),
+                dictionary.guessCount(), Files.size(file) / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+}
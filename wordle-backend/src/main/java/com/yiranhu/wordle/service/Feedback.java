@@ -0,0 +1,107 @@
+package com.yiranhu.wordle.service;
+
+/**
+ * Wordle feedback patterns encoded as base-3 numbers: digit {@code i} (weight 3^i)
+ * is 0 for grey, 1 for yellow and 2 for green at position {@code i}. A word of length
+ * {@code n} has {@code 3^n} patterns; the constants describe classic five-letter words.
+ */
+public final class Feedback {
+
+    public static final int LEN = SolveConstraints.LEN;
+    public static final int PATTERNS = 243;
+    public static final int ALL_GREEN = PATTERNS - 1;
+
+    private static final int[] WEIGHTS = {1, 3, 9, 27, 81, 243, 729, 2187};
+
+    private Feedback() {}
+
+    /** Number of patterns for words of {@code length} letters. */
+    public static int patterns(int length) {
+        return 3 * WEIGHTS[length - 1];
+    }
+
+    /** Standard Wordle scoring, including duplicate letters: greens first, then yellows left to right. */
+    public static int pattern(String guess, String answer) {
+        return pattern(PackedWords.encode(guess), PackedWords.encode(answer), guess.length());
+    }
+
+    /** {@link #pattern(String, String)} on packed words of {@code length} letters, without allocating. */
+    public static int pattern(long guess, long answer, int length) {
+        int code = 0;
+        int unmatched = 0;
+        for (int i = 0; i < length; i++) {
+            if (PackedWords.letter(guess, i) == PackedWords.letter(answer, i)) {
+                code += 2 * WEIGHTS[i];
+            } else {
+                unmatched |= 1 << i;
+            }
+        }
+        // Each non-green guess letter takes the first unmatched answer position holding it
+        for (int open = unmatched; open != 0; open &= open - 1) {
+            int letter = PackedWords.letter(guess, Integer.numberOfTrailingZeros(open));
+            for (int left = unmatched; left != 0; left &= left - 1) {
+                int j = Integer.numberOfTrailingZeros(left);
+                if (PackedWords.letter(answer, j) == letter) {
+                    unmatched &= ~(1 << j);
+                    code += WEIGHTS[Integer.numberOfTrailingZeros(open)];
+                    break;
+                }
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Scores two dictionary words. A guess without repeated letters needs no bookkeeping:
+     * each letter that is not green is yellow exactly when the answer contains it.
+     */
+    public static int pattern(PackedWords guesses, int guess, PackedWords answers, int answer) {
+        long g = guesses.code(guess);
+        long a = answers.code(answer);
+        int length = guesses.length();
+        if (guesses.hasDuplicates(guess)) {
+            return pattern(g, a, length);
+        }
+        int answerLetters = answers.letters(answer);
+        int code = 0;
+        for (int i = 0; i < length; i++) {
+            int letter = PackedWords.letter(g, i);
+            if (letter == PackedWords.letter(a, i)) {
+                code += 2 * WEIGHTS[i];
+            } else if ((answerLetters & (1 << letter)) != 0) {
+                code += WEIGHTS[i];
+            }
+        }
+        return code;
+    }
+
+    public static int digit(int pattern, int position) {
+        return pattern / WEIGHTS[position] % 3;
+    }
+
+    /** Encodes request hints ("-" grey, "x" yellow, anything else green) as a pattern. */
+    public static int parse(String[] hintArray) {
+        int code = 0;
+        for (int i = 0; i < hintArray.length; i++) {
+            char hint = hintArray[i].charAt(0);
+            code += (hint == '-' ? 0 : hint == 'x' ? 1 : 2) * WEIGHTS[i];
+        }
+        return code;
+    }
+
+    /**
+     * Renders a pattern in the request hint format, e.g. {@code "- x g - -"}. Greens are
+     * written as "g" rather than as the letter, which for an x would read back as yellow.
+     */
+    public static String hints(String guess, int pattern) {
+        StringBuilder hints = new StringBuilder(2 * guess.length() - 1);
+        for (int i = 0; i < guess.length(); i++) {
+            if (i > 0) {
+                hints.append(' ');
+            }
+            int digit = digit(pattern, i);
+            hints.append(digit == 2 ? 'g' : digit == 1 ? 'x' : '-');
+        }
+        return hints.toString();
+    }
+}
@@ -0,0 +1,67 @@
+package com.yiranhu.wordle.service;
+
+import java.util.List;
+
+/**
+ * Immutable state of one server-side game: the name and version of the dictionary it is
+ * played on, the remaining candidates as a bitmap over that version's index, the merged
+ * constraints of all turns and the number of turns played. Its size depends only on the
+ * dictionary, not on how long the game has gone on. The dictionary itself is looked up by
+ * name, so a session never keeps a retired version in memory.
+ */
+public final class GameSession {
+
+    private final String id;
+    private final String dictionaryName;
+    private final long dictionaryVersion;
+    private final long[] candidates;
+    private final SolveConstraints constraints;
+    private final int turns;
+
+    GameSession(String id, WordleDictionary dictionary, long[] candidates, SolveConstraints constraints, int turns) {
+        this(id, dictionary.name(), dictionary.version(), candidates, constraints, turns);
+    }
+
+    private GameSession(String id, String dictionaryName, long dictionaryVersion, long[] candidates, SolveConstraints constraints, int turns) {
+        this.id = id;
+        this.dictionaryName = dictionaryName;
+        this.dictionaryVersion = dictionaryVersion;
+        this.candidates = candidates;
+        this.constraints = constraints;
+        this.turns = turns;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    String dictionaryName() {
+        return dictionaryName;
+    }
+
+    /** Whether the candidates are a bitmap over {@code dictionary}'s index. */
+    boolean isOn(WordleDictionary dictionary) {
+        return dictionary.name().equals(dictionaryName) && dictionary.version() == dictionaryVersion;
+    }
+
+    long[] candidates() {
+        return candidates;
+    }
+
+    SolveConstraints constraints() {
+        return constraints;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    GameSession advance(SolveConstraints turn, long[] remaining) {
+        return new GameSession(id, dictionaryName, dictionaryVersion, remaining, SolveConstraints.combine(List.of(constraints, turn)), turns + 1);
+    }
+
+    /** The same game on a newer version of its dictionary, with {@code remaining} filtered from it. */
+    GameSession rebase(WordleDictionary latest, long[] remaining) {
+        return new GameSession(id, latest, remaining, constraints, turns);
+    }
+}
@@ -0,0 +1,159 @@
+package com.yiranhu.wordle.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.yiranhu.wordle.model.CacheStatistics;
+import com.yiranhu.wordle.model.GameSessionResponse;
+import com.yiranhu.wordle.model.GuessFeedback;
+import com.yiranhu.wordle.model.WordleResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Server-side games. Each session keeps its current candidate bitmap, so every turn only
+ * narrows the set left by the previous one. Sessions live in a bounded cache that evicts
+ * by size and idle time; their suggestions come from the solver's result cache. Sessions
+ * name their dictionary rather than hold it: when it is reloaded, the next request replays
+ * the merged constraints on the new version, and when it is removed the game ends.
+ */
+@Service
+public class GameSessionService {
+
+    private final WordleSolver wordleSolver;
+    private final Cache<String, GameSession> sessions;
+
+    public GameSessionService(WordleSolver wordleSolver,
+                              @Value("${wordle.sessions.max-size:50000}") long maxSize,
+                              @Value("${wordle.sessions.ttl:30m}") Duration ttl,
+                              SolveMetrics metrics) {
+        this.wordleSolver = wordleSolver;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        metrics.monitor(sessions, "wordle.sessions");
+    }
+
+    public GameSessionResponse start() {
+        return start(null, null);
+    }
+
+    /**
+     * Starts a game on dictionary {@code dictionaryName}, or if null on the dictionary for
+     * {@code length}-letter words, or the default one if that is null too.
+     */
+    public GameSessionResponse start(String dictionaryName, Integer length) {
+        return start(dictionaryName, length, 0);
+    }
+
+    /** Like {@link #start(String, Integer)}, ranking the opening suggestions within {@code budgetNanos} if positive. */
+    public GameSessionResponse start(String dictionaryName, Integer length, long budgetNanos) {
+        WordleDictionary dictionary;
+        try {
+            dictionary = length == null ? wordleSolver.dictionary(dictionaryName) : wordleSolver.dictionary(dictionaryName, length);
+        } catch (IllegalArgumentException e) {
+            return new GameSessionResponse(null, 0, 0, new WordleResponse(null, e.getMessage(), false));
+        }
+        GameSession session = new GameSession(UUID.randomUUID().toString(), dictionary, dictionary.index().all(),
+                SolveConstraints.none(dictionary.length()), 0);
+        sessions.put(session.getId(), session);
+        return respond(new Played(session, dictionary), budgetNanos);
+    }
+
+    /** Applies one turn of feedback; empty if the session does not exist or has expired. */
+    public Optional<GameSessionResponse> feedback(String sessionId, GuessFeedback turn) {
+        return feedback(sessionId, turn, 0);
+    }
+
+    /**
+     * Like {@link #feedback(String, GuessFeedback)}, ranking within {@code budgetNanos} if
+     * positive: once it runs out the best suggestions so far are returned, marked incomplete.
+     */
+    public Optional<GameSessionResponse> feedback(String sessionId, GuessFeedback turn, long budgetNanos) {
+        GameSession current = sessions.getIfPresent(sessionId);
+        if (current == null) {
+            return Optional.empty();
+        }
+        SolveConstraints constraints;
+        try {
+            constraints = wordleSolver.parseTurn(turn);
+        } catch (IllegalArgumentException e) {
+            return Optional.of(error(current, e));
+        }
+        Played[] played = new Played[1];
+        try {
+            sessions.asMap().computeIfPresent(sessionId, (id, session) -> {
+                Played latest = latest(session);
+                if (latest == null) {
+                    return null;
+                }
+                wordleSolver.checkLength(latest.dictionary(), constraints);
+                long[] remaining = wordleSolver.filter(latest.dictionary(), constraints, latest.session().candidates());
+                played[0] = new Played(latest.session().advance(constraints, remaining), latest.dictionary());
+                return played[0].session();
+            });
+        } catch (IllegalArgumentException e) {
+            return Optional.of(error(current, e));
+        }
+        return Optional.ofNullable(played[0]).map(latest -> respond(latest, budgetNanos));
+    }
+
+    public Optional<GameSessionResponse> suggestions(String sessionId) {
+        return suggestions(sessionId, 0);
+    }
+
+    public Optional<GameSessionResponse> suggestions(String sessionId, long budgetNanos) {
+        if (sessions.getIfPresent(sessionId) == null) {
+            return Optional.empty();
+        }
+        Played[] played = new Played[1];
+        sessions.asMap().computeIfPresent(sessionId, (id, session) -> {
+            played[0] = latest(session);
+            return played[0] == null ? null : played[0].session();
+        });
+        return Optional.ofNullable(played[0]).map(latest -> respond(latest, budgetNanos));
+    }
+
+    public boolean end(String sessionId) {
+        return sessions.asMap().remove(sessionId) != null;
+    }
+
+    public CacheStatistics statistics() {
+        CacheStats stats = sessions.stats();
+        return new CacheStatistics(sessions.estimatedSize(), stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.hitRate());
+    }
+
+    /** A session together with the dictionary version its candidates index. */
+    private record Played(GameSession session, WordleDictionary dictionary) {}
+
+    // The session on the current version of its dictionary, rebased if that was reloaded; null if it was removed
+    private Played latest(GameSession session) {
+        WordleDictionary latest = wordleSolver.findDictionary(session.dictionaryName()).orElse(null);
+        if (latest == null) {
+            return null;
+        }
+        if (session.isOn(latest)) {
+            return new Played(session, latest);
+        }
+        return new Played(session.rebase(latest, wordleSolver.filter(latest, session.constraints(), latest.index().all())), latest);
+    }
+
+    private GameSessionResponse error(GameSession session, IllegalArgumentException e) {
+        WordleResponse error = new WordleResponse(null, e.getMessage(), false);
+        return new GameSessionResponse(session.getId(), session.getTurns(), wordleSolver.count(session.candidates()), error);
+    }
+
+    private GameSessionResponse respond(Played played, long budgetNanos) {
+        GameSession session = played.session();
+        // Suggestions depend only on the merged constraints, so sessions share the solver's result cache;
+        // on a miss the session's own candidates are ranked rather than filtered again from the whole dictionary
+        return new GameSessionResponse(session.getId(), session.getTurns(), wordleSolver.count(session.candidates()),
+                wordleSolver.solve(played.dictionary(), session.constraints(), session.candidates(), budgetNanos, null));
+    }
+}
@@ -0,0 +1,385 @@
+package com.yiranhu.wordle.service;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Ranks guesses by the expected information (in bits) of the feedback partition they
+ * induce over the remaining answers. Guesses are scored in chunks on a ForkJoin pool,
+ * each worker reusing its own pattern histogram, and every chunk keeps a bounded top-K heap.
+ *
+ * <p>Ranking is anytime: the remaining answers are scored first, then the rest of the
+ * vocabulary in slices, so a time budget yields the best guesses found before it ran out.
+ *
+ * <p>Multi-board games are ranked by the summed expected information over every board
+ * (see {@link #rankJoint}): each matrix entry is read once and counted for all boards whose
+ * answers include it.
+ *
+ * <p>Guess and answer indexes refer to the rows and columns of the {@link PatternMatrix};
+ * as in {@link WordleDictionary}, the first guesses are the answers in the same order.
+ */
+public final class GuessRanker {
+
+    private static final int CHUNK = 64;
+    private static final int SLICE = 512;
+    private static final int DEADLINE_CHECK = 8;
+
+    /** Most boards {@link #rankJoint} takes, one bit each in an int. */
+    public static final int MAX_BOARDS = 32;
+
+    // Sized for the longest words; five-letter rankings only touch the first Feedback.PATTERNS
+    private static final ThreadLocal<int[]> HISTOGRAM = ThreadLocal.withInitial(() -> new int[Feedback.patterns(SolveConstraints.MAX_LEN)]);
+    private static final ThreadLocal<JointScratch> JOINT_SCRATCH = ThreadLocal.withInitial(JointScratch::new);
+
+    // Rankings without a stop signal in progress, across dictionaries: they share the ranker pool
+    private static final AtomicInteger LIVE = new AtomicInteger();
+    // Signalled whenever LIVE drops to zero, for background work waiting to run
+    private static final ReentrantLock IDLE_LOCK = new ReentrantLock();
+    private static final Condition IDLE = IDLE_LOCK.newCondition();
+
+    private final PatternMatrix patterns;
+    private final ForkJoinPool pool;
+    // c * log2(c) for every possible bucket size
+    private final double[] xLogX;
+
+    public GuessRanker(PatternMatrix patterns, ForkJoinPool pool) {
+        this.patterns = patterns;
+        this.pool = pool;
+        this.xLogX = new double[patterns.answers() + 1];
+        for (int c = 2; c < xLogX.length; c++) {
+            xLogX[c] = c * Math.log(c) / Math.log(2);
+        }
+    }
+
+    /** Returns the {@code k} best guesses for the answers set in {@code remaining}. */
+    public List<RankedGuess> rank(long[] remaining, int k) {
+        return rank(remaining, k, 0, null).guesses();
+    }
+
+    /**
+     * Ranks with a time budget ({@code budgetNanos <= 0} for none). {@code progress}, if given,
+     * is called on the calling thread whenever the best-so-far top-K changes before the end.
+     * With two or fewer answers left only the answers themselves are worth guessing.
+     */
+    public Ranking rank(long[] remaining, int k, long budgetNanos, Consumer<Ranking> progress) {
+        int[] answers = toIndexes(remaining);
+        return rank(answers, remaining, guess -> score(guess, answers), k, budgetNanos, progress, null);
+    }
+
+    /**
+     * Ranks without a budget, but gives up as soon as {@code stop} returns true, which is
+     * checked as often as a deadline; the ranking is then incomplete. For background work that
+     * must make way for requests. Unlike every other ranking it does not count as
+     * {@link #liveRankings() live}.
+     */
+    public Ranking rank(long[] remaining, int k, BooleanSupplier stop) {
+        int[] answers = toIndexes(remaining);
+        return rank(answers, remaining, guess -> score(guess, answers), k, 0, null, stop);
+    }
+
+    /**
+     * Ranks guesses for several boards played with the same guesses by the sum of their
+     * expected information over each board's remaining answers. Boards with no answers left
+     * are skipped; a guess counts as a candidate if it can be the answer on any board.
+     */
+    public Ranking rankJoint(List<long[]> boards, int k, long budgetNanos) {
+        if (boards.size() > MAX_BOARDS) {
+            throw new IllegalArgumentException("At most " + MAX_BOARDS + " boards can be ranked together");
+        }
+        long[] union = new long[(patterns.answers() + 63) >>> 6];
+        for (long[] board : boards) {
+            for (int b = 0; b < board.length; b++) {
+                union[b] |= board[b];
+            }
+        }
+        int[] answers = toIndexes(union);
+        int[] sizes = new int[boards.size()];
+        for (int board = 0; board < sizes.length; board++) {
+            sizes[board] = DictionaryIndex.count(boards.get(board));
+        }
+        // Which boards each answer of the union belongs to, one bit per board. A board with one
+        // answer left scores 0 for every guess, so it only makes its answer a candidate.
+        int[] masks = new int[answers.length];
+        for (int i = 0; i < answers.length; i++) {
+            for (int board = 0; board < sizes.length; board++) {
+                if (sizes[board] > 1 && DictionaryIndex.contains(boards.get(board), answers[i])) {
+                    masks[i] |= 1 << board;
+                }
+            }
+        }
+        return rank(answers, union, guess -> jointScore(guess, answers, masks, sizes), k, budgetNanos, null, null);
+    }
+
+    private Ranking rank(int[] answers, long[] remaining, IntToDoubleFunction score, int k, long budgetNanos, Consumer<Ranking> progress,
+                         BooleanSupplier stop) {
+        if (answers.length == 0) {
+            return new Ranking(List.of(), true, 0, 0);
+        }
+        if (answers.length <= 2) {
+            TopK top = new TopK(k);
+            for (int answer : answers) {
+                top.offer(answer, score.applyAsDouble(answer), true);
+            }
+            return new Ranking(top.toList(), true, answers.length, answers.length);
+        }
+        if (stop != null) {
+            return rankOnPool(answers, remaining, score, k, budgetNanos, progress, stop);
+        }
+        LIVE.incrementAndGet();
+        try {
+            return rankOnPool(answers, remaining, score, k, budgetNanos, progress, null);
+        } finally {
+            if (LIVE.decrementAndGet() == 0) {
+                IDLE_LOCK.lock();
+                try {
+                    IDLE.signalAll();
+                } finally {
+                    IDLE_LOCK.unlock();
+                }
+            }
+        }
+    }
+
+    /** Rankings on the ranker pool in progress that were not started with a stop signal, i.e. not background work. */
+    public static int liveRankings() {
+        return LIVE.get();
+    }
+
+    /** Blocks until no {@link #liveRankings() live ranking} is in progress. */
+    public static void awaitNoLiveRankings() throws InterruptedException {
+        IDLE_LOCK.lock();
+        try {
+            while (LIVE.get() > 0) {
+                IDLE.await();
+            }
+        } finally {
+            IDLE_LOCK.unlock();
+        }
+    }
+
+    private Ranking rankOnPool(int[] answers, long[] remaining, IntToDoubleFunction score, int k, long budgetNanos,
+                               Consumer<Ranking> progress, BooleanSupplier stop) {
+        long deadline = budgetNanos > 0 ? System.nanoTime() + budgetNanos : 0;
+        int total = patterns.guesses();
+        AtomicInteger scored = new AtomicInteger();
+        TopK top = new TopK(k);
+
+        // Phase 1: the remaining answers, which can also win outright. The first chunk ignores
+        // the deadline so that even an exhausted budget returns some suggestions.
+        int first = Math.min(CHUNK, answers.length);
+        top.addAll(pool.invoke(new RankTask(answers, score, remaining, k, 0, first, 0, stop, scored)));
+        top.addAll(pool.invoke(new RankTask(answers, score, remaining, k, first, answers.length, deadline, stop, scored)));
+
+        // Phase 2: the rest of the vocabulary, one slice at a time
+        int[] others = complement(remaining, total);
+        List<RankedGuess> reported = null;
+        for (int from = 0; from < others.length && !expired(deadline) && !stopped(stop); from += SLICE) {
+            if (progress != null) {
+                List<RankedGuess> current = top.toList();
+                if (!current.equals(reported)) {
+                    progress.accept(new Ranking(current, false, scored.get(), total));
+                    reported = current;
+                }
+            }
+            int to = Math.min(from + SLICE, others.length);
+            top.addAll(pool.invoke(new RankTask(others, score, remaining, k, from, to, deadline, stop, scored)));
+        }
+        return new Ranking(top.toList(), scored.get() == total, scored.get(), total);
+    }
+
+    /** Expected information of a single guess over the answers set in {@code remaining}. */
+    public double score(int guess, long[] remaining) {
+        return score(guess, toIndexes(remaining));
+    }
+
+    double score(int guess, int[] answers) {
+        if (patterns.isWide()) {
+            return scoreWide(guess, answers);
+        }
+        int[] counts = HISTOGRAM.get();
+        int offset = patterns.rowOffset(guess);
+        for (int answer : answers) {
+            counts[patterns.patternAt(offset + answer)]++;
+        }
+        double sum = 0;
+        for (int p = 0; p < Feedback.PATTERNS; p++) {
+            int c = counts[p];
+            if (c != 0) {
+                sum += xLogX[c];
+                counts[p] = 0;
+            }
+        }
+        int n = answers.length;
+        return (xLogX[n] - sum) / n;
+    }
+
+    // Longer words have thousands of patterns, most of them empty: sum and clear the buckets
+    // by walking the answers again instead of scanning every pattern
+    private double scoreWide(int guess, int[] answers) {
+        int[] counts = HISTOGRAM.get();
+        int offset = patterns.rowOffset(guess);
+        for (int answer : answers) {
+            counts[patterns.widePatternAt(offset + answer)]++;
+        }
+        double sum = 0;
+        for (int answer : answers) {
+            int p = patterns.widePatternAt(offset + answer);
+            int c = counts[p];
+            if (c != 0) {
+                sum += xLogX[c];
+                counts[p] = 0;
+            }
+        }
+        int n = answers.length;
+        return (xLogX[n] - sum) / n;
+    }
+
+    // Reads the guess's pattern for each answer once and adds it to the histogram of every
+    // board the answer belongs to; a second pass over the recorded patterns sums and clears them
+    private double jointScore(int guess, int[] answers, int[] masks, int[] sizes) {
+        int stride = patterns.patternCount();
+        JointScratch scratch = JOINT_SCRATCH.get().ensure(sizes.length * stride, answers.length, sizes.length);
+        int[] counts = scratch.counts;
+        int[] seen = scratch.patterns;
+        double[] sums = scratch.sums;
+        int offset = patterns.rowOffset(guess);
+        boolean wide = patterns.isWide();
+        for (int i = 0; i < answers.length; i++) {
+            int p = wide ? patterns.widePatternAt(offset + answers[i]) : patterns.patternAt(offset + answers[i]);
+            seen[i] = p;
+            for (int mask = masks[i]; mask != 0; mask &= mask - 1) {
+                counts[Integer.numberOfTrailingZeros(mask) * stride + p]++;
+            }
+        }
+        for (int i = 0; i < answers.length; i++) {
+            for (int mask = masks[i]; mask != 0; mask &= mask - 1) {
+                int board = Integer.numberOfTrailingZeros(mask);
+                int c = counts[board * stride + seen[i]];
+                if (c != 0) {
+                    sums[board] += xLogX[c];
+                    counts[board * stride + seen[i]] = 0;
+                }
+            }
+        }
+        double total = 0;
+        for (int board = 0; board < sizes.length; board++) {
+            int n = sizes[board];
+            if (n > 1) {
+                total += (xLogX[n] - sums[board]) / n;
+            }
+            sums[board] = 0;
+        }
+        return total;
+    }
+
+    private static boolean expired(long deadline) {
+        return deadline != 0 && System.nanoTime() - deadline >= 0;
+    }
+
+    private static boolean stopped(BooleanSupplier stop) {
+        return stop != null && stop.getAsBoolean();
+    }
+
+    private static int[] toIndexes(long[] set) {
+        int[] indexes = new int[DictionaryIndex.count(set)];
+        int i = 0;
+        for (int b = 0; b < set.length; b++) {
+            long block = set[b];
+            while (block != 0) {
+                indexes[i++] = (b << 6) + Long.numberOfTrailingZeros(block);
+                block &= block - 1;
+            }
+        }
+        return indexes;
+    }
+
+    private static int[] complement(long[] set, int size) {
+        int[] indexes = new int[size - DictionaryIndex.count(set)];
+        int i = 0;
+        for (int index = 0; index < size; index++) {
+            if (!WordleDictionary.isCandidate(set, index)) {
+                indexes[i++] = index;
+            }
+        }
+        return indexes;
+    }
+
+    // Per-thread buffers of jointScore, grown to the largest request seen
+    private static final class JointScratch {
+
+        int[] counts = new int[0];
+        int[] patterns = new int[0];
+        double[] sums = new double[0];
+
+        JointScratch ensure(int histograms, int answers, int boards) {
+            if (counts.length < histograms) {
+                counts = new int[histograms];
+            }
+            if (patterns.length < answers) {
+                patterns = new int[answers];
+            }
+            if (sums.length < boards) {
+                sums = new double[boards];
+            }
+            return this;
+        }
+    }
+
+    private final class RankTask extends RecursiveTask<TopK> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] guesses;
+        private final IntToDoubleFunction score;
+        private final long[] remaining;
+        private final int k;
+        private final int from;
+        private final int to;
+        private final long deadline;
+        private final BooleanSupplier stop;
+        private final AtomicInteger scored;
+
+        RankTask(int[] guesses, IntToDoubleFunction score, long[] remaining, int k, int from, int to, long deadline, BooleanSupplier stop,
+                 AtomicInteger scored) {
+            this.guesses = guesses;
+            this.score = score;
+            this.remaining = remaining;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+            this.stop = stop;
+            this.scored = scored;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (to - from <= CHUNK) {
+                TopK top = new TopK(k);
+                int i = from;
+                for (; i < to; i++) {
+                    if ((i - from) % DEADLINE_CHECK == 0 && (expired(deadline) || stopped(stop))) {
+                        break;
+                    }
+                    int guess = guesses[i];
+                    top.offer(guess, score.applyAsDouble(guess), WordleDictionary.isCandidate(remaining, guess));
+                }
+                scored.addAndGet(i - from);
+                return top;
+            }
+            int mid = (from + to) >>> 1;
+            RankTask left = new RankTask(guesses, score, remaining, k, from, mid, deadline, stop, scored);
+            left.fork();
+            TopK top = new RankTask(guesses, score, remaining, k, mid, to, deadline, stop, scored).compute();
+            top.addAll(left.join());
+            return top;
+        }
+    }
+}
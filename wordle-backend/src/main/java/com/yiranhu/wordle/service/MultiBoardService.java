@@ -0,0 +1,170 @@
+package com.yiranhu.wordle.service;
+
+import com.yiranhu.wordle.model.BoardState;
+import com.yiranhu.wordle.model.GuessFeedback;
+import com.yiranhu.wordle.model.MultiBoardRequest;
+import com.yiranhu.wordle.model.MultiBoardResponse;
+import com.yiranhu.wordle.model.RankedSuggestion;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solves multi-board games, where every guess is played on all boards at once. Each board is
+ * filtered on its own, then guesses are ranked once for all unsolved boards together by
+ * their summed expected information, so a guess that splits several boards well beats one
+ * that is only best for a single board.
+ */
+@Service
+public class MultiBoardService {
+
+    private static final int SUGGESTIONS = 10;
+
+    private final WordleSolver wordleSolver;
+    private final SolveMetrics metrics;
+
+    public MultiBoardService(WordleSolver wordleSolver, SolveMetrics metrics) {
+        this.wordleSolver = wordleSolver;
+        this.metrics = metrics;
+    }
+
+    /** Ranks the next guess; {@code maxBudgetNanos}, if positive, caps the request's own time budget. */
+    public MultiBoardResponse solve(MultiBoardRequest request, long maxBudgetNanos) {
+        if (request == null || request.getBoards() == null || request.getBoards().isEmpty()) {
+            return error("Request must contain at least one board");
+        }
+        if (request.getBoards().size() > GuessRanker.MAX_BOARDS) {
+            return error("At most " + GuessRanker.MAX_BOARDS + " boards are supported");
+        }
+        long budgetNanos = request.getBudgetMs() != null ? TimeUnit.MILLISECONDS.toNanos(request.getBudgetMs()) : 0;
+        if (maxBudgetNanos > 0 && (budgetNanos <= 0 || budgetNanos > maxBudgetNanos)) {
+            budgetNanos = maxBudgetNanos;
+        }
+        try {
+            return rank(request, budgetNanos);
+        } catch (IllegalArgumentException e) {
+            return error(e.getMessage());
+        } catch (SolverUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            return error("Error processing request: " + e.getMessage());
+        }
+    }
+
+    private MultiBoardResponse rank(MultiBoardRequest request, long budgetNanos) {
+        List<String> guesses = request.getGuesses() != null ? request.getGuesses() : List.of();
+        checkGuesses(guesses);
+        List<List<String>> boards = request.getBoards();
+
+        long start = metrics.start();
+        List<List<SolveConstraints>> turns = new ArrayList<>(boards.size());
+        boolean[] solved = new boolean[boards.size()];
+        for (int board = 0; board < boards.size(); board++) {
+            turns.add(parseBoard(board, guesses, boards.get(board), solved));
+        }
+        metrics.stage(SolveMetrics.Stage.PARSE, start);
+
+        WordleDictionary dictionary = guesses.isEmpty()
+                ? wordleSolver.dictionary(request.getDictionary())
+                : wordleSolver.dictionary(request.getDictionary(), guesses.get(0).length());
+        List<long[]> unsolved = new ArrayList<>();
+        List<BoardState> states = new ArrayList<>(boards.size());
+        int remainingWords = 0;
+        for (int board = 0; board < boards.size(); board++) {
+            List<SolveConstraints> boardTurns = turns.get(board);
+            if (solved[board]) {
+                states.add(new BoardState(true, 1, List.of(guesses.get(boardTurns.size() - 1).toLowerCase())));
+                continue;
+            }
+            long[] remaining = dictionary.index().all();
+            if (!boardTurns.isEmpty()) {
+                SolveConstraints constraints = SolveConstraints.combine(boardTurns);
+                wordleSolver.checkLength(dictionary, constraints);
+                remaining = wordleSolver.filter(dictionary, constraints, remaining);
+            }
+            int count = DictionaryIndex.count(remaining);
+            if (count == 0) {
+                throw new IllegalArgumentException("Board " + (board + 1) + ": no word matches its hints");
+            }
+            remainingWords += count;
+            unsolved.add(remaining);
+            states.add(new BoardState(false, count, dictionary.index().materialize(remaining, SUGGESTIONS)));
+        }
+        if (unsolved.isEmpty()) {
+            MultiBoardResponse response = new MultiBoardResponse(List.of(), "All boards are solved", true, states);
+            response.setRankedSuggestions(List.of());
+            return response;
+        }
+
+        start = metrics.start();
+        Ranking ranking = dictionary.ranker().rankJoint(unsolved, SUGGESTIONS, budgetNanos);
+        metrics.stage(SolveMetrics.Stage.RANK, start);
+
+        List<String> suggestions = new ArrayList<>(ranking.guesses().size());
+        List<RankedSuggestion> ranked = new ArrayList<>(ranking.guesses().size());
+        for (RankedGuess guess : ranking.guesses()) {
+            String word = dictionary.guesses().get(guess.guess());
+            suggestions.add(word);
+            ranked.add(new RankedSuggestion(word, guess.score(), guess.candidate()));
+        }
+        String message = "Ranked " + suggestions.size() + " suggestions by summed expected information over "
+                + unsolved.size() + " unsolved boards with " + remainingWords + " remaining words";
+        if (!ranking.complete()) {
+            message += " (best so far: scored " + ranking.scored() + " of " + ranking.total() + " guesses)";
+        }
+        MultiBoardResponse response = new MultiBoardResponse(suggestions, message, true, states);
+        response.setRankedSuggestions(ranked);
+        response.setComplete(ranking.complete());
+        return response;
+    }
+
+    // Parses a board's turns up to and including its all-green one, if any
+    // Every board shares the guesses, so they are checked once: present, letters only, all of one length
+    private static void checkGuesses(List<String> guesses) {
+        for (int t = 0; t < guesses.size(); t++) {
+            String guess = guesses.get(t);
+            String prefix = "Guess " + (t + 1) + ": ";
+            if (guess == null || guess.isEmpty()) {
+                throw new IllegalArgumentException(prefix + "Word must not be empty");
+            }
+            for (int i = 0; i < guess.length(); i++) {
+                char letter = Character.toLowerCase(guess.charAt(i));
+                if (letter < 'a' || letter > 'z') {
+                    throw new IllegalArgumentException(prefix + "Word must contain only letters a-z");
+                }
+            }
+            if (guess.length() != guesses.get(0).length()) {
+                throw new IllegalArgumentException(prefix + "Word must be exactly " + guesses.get(0).length() + " letters, like guess 1");
+            }
+        }
+    }
+
+    private List<SolveConstraints> parseBoard(int board, List<String> guesses, List<String> hints, boolean[] solved) {
+        String prefix = "Board " + (board + 1);
+        List<String> boardHints = hints != null ? hints : List.of();
+        if (boardHints.size() > guesses.size()) {
+            throw new IllegalArgumentException(prefix + ": " + boardHints.size() + " hints for " + guesses.size() + " guesses");
+        }
+        List<SolveConstraints> turns = new ArrayList<>(boardHints.size());
+        for (int t = 0; t < boardHints.size() && !solved[board]; t++) {
+            SolveConstraints turn;
+            try {
+                turn = wordleSolver.parseTurn(new GuessFeedback(guesses.get(t), boardHints.get(t)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(prefix + ", guess " + (t + 1) + ": " + e.getMessage(), e);
+            }
+            turns.add(turn);
+            solved[board] = turn.sureCount() == turn.length();
+        }
+        if (!solved[board] && boardHints.size() < guesses.size()) {
+            throw new IllegalArgumentException(prefix + ": " + boardHints.size() + " hints for " + guesses.size() + " guesses, and no all-green turn");
+        }
+        return turns;
+    }
+
+    private static MultiBoardResponse error(String message) {
+        return new MultiBoardResponse(null, message, false, null);
+    }
+}
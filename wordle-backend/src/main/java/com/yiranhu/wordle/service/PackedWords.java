@@ -0,0 +1,149 @@
+package com.yiranhu.wordle.service;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The dictionary as primitive arrays: each word packed into a {@code long} (5 bits per
+ * letter, position {@code i} at bits {@code 5i..5i+4}), its 26-bit letter set, and a bitmap
+ * of words with a repeated letter. Hot paths test letters with shifts and masks; words are
+ * only turned back into strings by {@link #get(int)} when a response is built. All words of
+ * one list have the same length.
+ */
+public final class PackedWords extends AbstractList<String> implements RandomAccess {
+
+    private final int length;
+    private final long[] codes;
+    private final int[] letters;
+    private final long[] duplicates;
+
+    private PackedWords(int length, long[] codes) {
+        this.length = length;
+        this.codes = codes;
+        this.letters = new int[codes.length];
+        this.duplicates = new long[(codes.length + 63) >>> 6];
+        for (int w = 0; w < codes.length; w++) {
+            letters[w] = letterMask(codes[w], length);
+            if (Integer.bitCount(letters[w]) < length) {
+                duplicates[w >>> 6] |= 1L << w;
+            }
+        }
+    }
+
+    /**
+     * Packs lowercase words of one length (five letters for an empty list); a
+     * {@code PackedWords} is returned as is.
+     */
+    public static PackedWords of(List<String> words) {
+        if (words instanceof PackedWords packed) {
+            return packed;
+        }
+        int length = words.isEmpty() ? SolveConstraints.LEN : words.get(0).length();
+        long[] codes = new long[words.size()];
+        for (int w = 0; w < codes.length; w++) {
+            String word = words.get(w);
+            if (word.length() != length) {
+                throw new IllegalArgumentException("Words must all have " + length + " letters, not '" + word + "'");
+            }
+            codes[w] = encode(word);
+        }
+        return new PackedWords(length, codes);
+    }
+
+    /** Words already packed by {@link #encode(String)}, e.g. read back from a {@link DictionarySnapshot}. */
+    static PackedWords of(int length, long[] codes) {
+        return new PackedWords(length, codes);
+    }
+
+    /** Packs a word of up to {@link SolveConstraints#MAX_LEN} letters, ignoring case. Letters must be a-z. */
+    public static long encode(String word) {
+        long code = 0;
+        for (int i = 0; i < word.length(); i++) {
+            code |= (long) (Character.toLowerCase(word.charAt(i)) - 'a') << (5 * i);
+        }
+        return code;
+    }
+
+    public static String decode(long code, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + letter(code, i));
+        }
+        return new String(chars);
+    }
+
+    /** Letter at {@code position} as 0-25. */
+    public static int letter(long code, int position) {
+        return (int) (code >>> (5 * position)) & 31;
+    }
+
+    public static int letterMask(long code, int length) {
+        int mask = 0;
+        for (int i = 0; i < length; i++) {
+            mask |= 1 << letter(code, i);
+        }
+        return mask;
+    }
+
+    /** Letters per word. */
+    public int length() {
+        return length;
+    }
+
+    /** Approximate heap footprint of the packed arrays. */
+    long bytes() {
+        return 8L * codes.length + 4L * letters.length + 8L * duplicates.length;
+    }
+
+    public long code(int index) {
+        return codes[index];
+    }
+
+    public int letters(int index) {
+        return letters[index];
+    }
+
+    public boolean hasDuplicates(int index) {
+        return DictionaryIndex.contains(duplicates, index);
+    }
+
+    @Override
+    public String get(int index) {
+        return decode(codes[index], length);
+    }
+
+    @Override
+    public int size() {
+        return codes.length;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof String word) || word.length() != length || !isLowercase(word)) {
+            return -1;
+        }
+        long code = encode(word);
+        for (int w = 0; w < codes.length; w++) {
+            if (codes[w] == code) {
+                return w;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    private static boolean isLowercase(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,224 @@
+package com.yiranhu.wordle.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Guess x answer matrix of {@link Feedback} pattern codes, one byte per pair for words of
+ * up to five letters. Longer words have more than 256 patterns and take two bytes per pair,
+ * read through {@link #widePatternAt(int)} so the byte path stays as it is.
+ *
+ * <p>The matrix lives in a versioned binary file that is memory-mapped read-only, so it
+ * stays off-heap and is shared by every request. The header records the dimensions and a
+ * fingerprint of both word lists; if either list changes the file is regenerated.
+ */
+public final class PatternMatrix {
+
+    private static final Logger log = LoggerFactory.getLogger(PatternMatrix.class);
+
+    private static final int MAGIC = 0x57444C50; // "WDLP"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+
+    private final ByteBuffer data;
+    private final int guesses;
+    private final int answers;
+    private final int patternCount;
+    private final boolean wide;
+
+    private PatternMatrix(ByteBuffer data, int guesses, int answers, int length) {
+        this.data = data;
+        this.guesses = guesses;
+        this.answers = answers;
+        this.patternCount = Feedback.patterns(length);
+        this.wide = isWide(length);
+    }
+
+    /** Maps {@code file}, regenerating it first if it is missing or stale. */
+    public static PatternMatrix open(Path file, List<String> guessWords, List<String> answerWords) {
+        long fingerprint = fingerprint(guessWords, answerWords);
+        int length = PackedWords.of(guessWords).length();
+        long size = size(guessWords.size(), answerWords.size(), length);
+        try {
+            if (!isCurrent(file, guessWords.size(), answerWords.size(), size, fingerprint)) {
+                log.info("Generating feedback pattern matrix {} ({} x {})", file, guessWords.size(), answerWords.size());
+                write(file, guessWords, answerWords, fingerprint);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, size);
+                return new PatternMatrix(data, guessWords.size(), answerWords.size(), length);
+            }
+        } catch (IOException e) {
+            log.warn("Cannot use pattern matrix file {}, computing it off-heap in memory: {}", file, e.getMessage());
+            return compute(guessWords, answerWords);
+        }
+    }
+
+    /** A matrix over {@code data}, e.g. a slice of a mapped {@link DictionarySnapshot}. */
+    static PatternMatrix wrap(ByteBuffer data, int guesses, int answers, int length) {
+        if (data.capacity() != size(guesses, answers, length)) {
+            throw new IllegalArgumentException("Pattern matrix of " + guesses + " x " + answers + " words takes "
+                    + size(guesses, answers, length) + " bytes, not " + data.capacity());
+        }
+        return new PatternMatrix(data, guesses, answers, length);
+    }
+
+    /** Builds the matrix in a direct buffer without touching the filesystem. */
+    public static PatternMatrix compute(List<String> guessWords, List<String> answerWords) {
+        PackedWords guesses = PackedWords.of(guessWords);
+        PackedWords answers = PackedWords.of(answerWords);
+        ByteBuffer data = ByteBuffer.allocateDirect((int) size(guesses.size(), answers.size(), guesses.length()));
+        for (int guess = 0; guess < guesses.size(); guess++) {
+            fillRow(data, guesses, guess, answers);
+        }
+        data.flip();
+        return new PatternMatrix(data, guesses.size(), answers.size(), guesses.length());
+    }
+
+    /** The raw patterns, row by row, positioned at the start. */
+    ByteBuffer data() {
+        return data.duplicate().clear();
+    }
+
+    public int pattern(int guess, int answer) {
+        return wide ? widePatternAt(guess * answers + answer) : patternAt(guess * answers + answer);
+    }
+
+    public int rowOffset(int guess) {
+        return guess * answers;
+    }
+
+    /** Pattern at an absolute offset, for callers walking a row from {@link #rowOffset(int)}. */
+    public int patternAt(int offset) {
+        return data.get(offset) & 0xFF;
+    }
+
+    /** {@link #patternAt(int)} for a {@link #isWide() wide} matrix. */
+    public int widePatternAt(int offset) {
+        return data.getChar(offset << 1);
+    }
+
+    /** Whether patterns take two bytes, i.e. the words have more than five letters. */
+    public boolean isWide() {
+        return wide;
+    }
+
+    /** Number of distinct patterns, {@code 3^length}. */
+    public int patternCount() {
+        return patternCount;
+    }
+
+    /** Off-heap bytes the matrix occupies. */
+    long bytes() {
+        return data.capacity();
+    }
+
+    public int guesses() {
+        return guesses;
+    }
+
+    public int answers() {
+        return answers;
+    }
+
+    private static boolean isWide(int length) {
+        return Feedback.patterns(length) > 256;
+    }
+
+    static long size(int guesses, int answers, int length) {
+        long size = (long) guesses * answers * (isWide(length) ? 2 : 1);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Pattern matrix of " + guesses + " x " + answers + " words does not fit in one buffer");
+        }
+        return size;
+    }
+
+    private static boolean isCurrent(Path file, int guesses, int answers, long size, long fingerprint) throws IOException {
+        if (!Files.isRegularFile(file) || Files.size(file) != HEADER_BYTES + size) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            if (channel.read(header, 0) != HEADER_BYTES) {
+                return false;
+            }
+            header.flip();
+            return header.getInt() == MAGIC
+                    && header.getInt() == VERSION
+                    && header.getInt() == guesses
+                    && header.getInt() == answers
+                    && header.getLong() == fingerprint;
+        }
+    }
+
+    private static void write(Path file, List<String> guessWords, List<String> answerWords, long fingerprint) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putInt(VERSION).putInt(guessWords.size()).putInt(answerWords.size()).putLong(fingerprint);
+                header.flip();
+                writeFully(channel, header);
+
+                PackedWords guesses = PackedWords.of(guessWords);
+                PackedWords answers = PackedWords.of(answerWords);
+                ByteBuffer row = ByteBuffer.allocate(answers.size() * (isWide(guesses.length()) ? 2 : 1));
+                for (int guess = 0; guess < guesses.size(); guess++) {
+                    row.clear();
+                    fillRow(row, guesses, guess, answers);
+                    row.flip();
+                    writeFully(channel, row);
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void fillRow(ByteBuffer target, PackedWords guesses, int guess, PackedWords answers) {
+        boolean wide = isWide(guesses.length());
+        for (int answer = 0; answer < answers.size(); answer++) {
+            int pattern = Feedback.pattern(guesses, guess, answers, answer);
+            if (wide) {
+                target.putChar((char) pattern);
+            } else {
+                target.put((byte) pattern);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    static long fingerprint(List<String> guessWords, List<String> answerWords) {
+        CRC32 crc = new CRC32();
+        for (String word : guessWords) {
+            crc.update(word.getBytes(StandardCharsets.US_ASCII));
+            crc.update('\n');
+        }
+        crc.update(0);
+        for (String word : answerWords) {
+            crc.update(word.getBytes(StandardCharsets.US_ASCII));
+            crc.update('\n');
+        }
+        return ((long) guessWords.size() << 48) ^ ((long) answerWords.size() << 32) ^ crc.getValue();
+    }
+}
@@ -0,0 +1,7 @@
+package com.yiranhu.wordle.service;
+
+/**
+ * A guess (by dictionary index) with its expected information in bits, and whether it
+ * is itself one of the remaining answers.
+ */
+public record RankedGuess(int guess, double score, boolean candidate) {}
@@ -0,0 +1,9 @@
+package com.yiranhu.wordle.service;
+
+import java.util.List;
+
+/**
+ * Best guesses found by a (possibly deadline-bounded) ranking run. {@code complete} is false
+ * when the deadline hit before all {@code total} guesses were scored.
+ */
+public record Ranking(List<RankedGuess> guesses, boolean complete, int scored, int total) {}
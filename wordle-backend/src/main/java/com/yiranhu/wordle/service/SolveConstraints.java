@@ -0,0 +1,365 @@
+package com.yiranhu.wordle.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable constraint state for a single solve request, compiled once from the hints:
+ * the green letter of each position, the letters each position excludes, and how many
+ * times each letter may occur. Letters are kept as 26-bit masks and small arrays so that
+ * a request never touches shared mutable collections.
+ *
+ * <p>Letter counts follow the standard duplicate-letter rules: a letter's green and yellow
+ * tiles in one guess are a lower bound on its count, and a grey tile of the same letter
+ * makes that bound exact. A letter that is only grey has a count of zero.
+ *
+ * <p>Constraints have the length of the guesses they were parsed from, between
+ * {@link #MIN_LEN} and {@link #MAX_LEN} letters; {@link #LEN} is the classic five.
+ */
+public final class SolveConstraints {
+
+    static final int LEN = 5;
+    static final int MIN_LEN = 4;
+    static final int MAX_LEN = 8;
+    static final char NONE = 0;
+
+    private static final int LETTERS = 26;
+
+    private final int length;
+    private final char[] sure;
+    private final int[] unsure;
+    // Occurrences allowed per letter; max is the length when unbounded
+    private final byte[] min;
+    private final byte[] max;
+    private final int contain;
+    private final int ban;
+    // Letters whose count is bounded by more than present / absent
+    private final int counted;
+    private final int sureCount;
+    private final boolean contradictory;
+
+    private SolveConstraints(char[] sure, int[] unsure, byte[] min, byte[] max, boolean contradictory) {
+        int length = sure.length;
+        int sureCount = 0;
+        byte[] greens = new byte[LETTERS];
+        for (int i = 0; i < length; i++) {
+            if (sure[i] != NONE) {
+                sureCount++;
+                greens[sure[i] - 'a']++;
+            }
+        }
+        int contain = 0;
+        int ban = 0;
+        int counted = 0;
+        int total = 0;
+        for (int letter = 0; letter < LETTERS; letter++) {
+            // Greens from different turns can add up past any single turn's count
+            min[letter] = (byte) Math.max(min[letter], greens[letter]);
+            total += min[letter];
+            contradictory |= min[letter] > max[letter];
+            if (min[letter] > 0) {
+                contain |= 1 << letter;
+            }
+            if (max[letter] == 0) {
+                ban |= 1 << letter;
+            }
+            if (min[letter] > 1 || (max[letter] > 0 && max[letter] < length)) {
+                counted |= 1 << letter;
+            }
+        }
+        this.length = length;
+        this.sure = sure;
+        this.unsure = unsure;
+        this.min = min;
+        this.max = max;
+        this.contain = contain;
+        this.ban = ban;
+        this.counted = counted;
+        this.sureCount = sureCount;
+        this.contradictory = contradictory || total > length;
+    }
+
+    private static final SolveConstraints[] NO_CONSTRAINTS = new SolveConstraints[MAX_LEN + 1];
+
+    static {
+        for (int length = MIN_LEN; length <= MAX_LEN; length++) {
+            NO_CONSTRAINTS[length] = new SolveConstraints(new char[length], new int[length], new byte[LETTERS], unbounded(length), false);
+        }
+    }
+
+    /** Constraint state before the first guess: every five-letter word matches. */
+    public static SolveConstraints none() {
+        return NO_CONSTRAINTS[LEN];
+    }
+
+    /** Constraint state before the first guess for words of {@code length} letters. */
+    public static SolveConstraints none(int length) {
+        checkLength(length);
+        return NO_CONSTRAINTS[length];
+    }
+
+    /**
+     * Parses a guess and its hints ("-" grey, "x" yellow, anything else green). A grey
+     * letter is excluded from its position; it is only banned outright when the guess has
+     * no yellow or green tile of the same letter, and otherwise caps the letter's count.
+     * The word's length sets the constraints' length; there must be a hint per letter.
+     */
+    public static SolveConstraints parse(String word, String[] hintArray) {
+        int length = word.length();
+        checkLength(length);
+        if (hintArray.length < length) {
+            throw new IllegalArgumentException("Expected " + length + " hints for '" + word + "'");
+        }
+        return build(word, hintArray, 0);
+    }
+
+    /**
+     * Constraints of one turn from its {@link Feedback} pattern, for callers that scored the
+     * guess themselves: no hint string is rendered or parsed.
+     */
+    public static SolveConstraints of(String word, int pattern) {
+        checkLength(word.length());
+        return build(word, null, pattern);
+    }
+
+    // One turn from its hints, or from the digits of pattern when hintArray is null
+    private static SolveConstraints build(String word, String[] hintArray, int pattern) {
+        int length = word.length();
+        char[] sure = new char[length];
+        int[] unsure = new int[length];
+        byte[] min = new byte[LETTERS];
+        byte[] max = unbounded(length);
+        int grey = 0;
+
+        for (int i = 0; i < length; i++) {
+            char letter = Character.toLowerCase(word.charAt(i));
+            if (letter < 'a' || letter > 'z') {
+                throw new IllegalArgumentException("Word must contain only letters a-z");
+            }
+            int bit = bit(letter);
+            int digit = hintArray == null ? Feedback.digit(pattern, i) : hintDigit(hintArray[i].charAt(0));
+
+            if (digit == 0) {
+                grey |= bit;
+                unsure[i] |= bit;
+            } else if (digit == 1) {
+                min[letter - 'a']++;
+                unsure[i] |= bit;
+            } else {
+                sure[i] = letter;
+                min[letter - 'a']++;
+            }
+        }
+        for (int letter = 0; letter < LETTERS; letter++) {
+            if ((grey & (1 << letter)) != 0) {
+                max[letter] = min[letter];
+            }
+        }
+
+        return new SolveConstraints(sure, unsure, min, max, false);
+    }
+
+    /**
+     * Merges the constraints of several turns into one, so a whole game history is
+     * resolved with a single filter: letter counts take the tightest bounds of any turn.
+     * Two different greens on one position, or bounds no word can meet, make the result
+     * {@link #isContradictory() contradictory}. Turns must all have the same length.
+     */
+    public static SolveConstraints combine(List<SolveConstraints> turns) {
+        if (turns.size() == 1) {
+            return turns.get(0);
+        }
+        int length = turns.get(0).length;
+        char[] sure = new char[length];
+        int[] unsure = new int[length];
+        byte[] min = new byte[LETTERS];
+        byte[] max = unbounded(length);
+        boolean contradictory = false;
+
+        for (SolveConstraints turn : turns) {
+            if (turn.length != length) {
+                throw new IllegalArgumentException("All guesses must have " + length + " letters");
+            }
+            for (int i = 0; i < length; i++) {
+                if (turn.sure[i] != NONE) {
+                    if (sure[i] == NONE) {
+                        sure[i] = turn.sure[i];
+                    } else if (sure[i] != turn.sure[i]) {
+                        contradictory = true;
+                    }
+                }
+                unsure[i] |= turn.unsure[i];
+            }
+            for (int letter = 0; letter < LETTERS; letter++) {
+                min[letter] = (byte) Math.max(min[letter], turn.min[letter]);
+                max[letter] = (byte) Math.min(max[letter], turn.max[letter]);
+            }
+            contradictory |= turn.contradictory;
+        }
+        return new SolveConstraints(sure, unsure, min, max, contradictory);
+    }
+
+    // "-" grey, "x" yellow, anything else green, as Feedback pattern digits
+    private static int hintDigit(char hint) {
+        return hint == '-' ? 0 : hint == 'x' ? 1 : 2;
+    }
+
+    private static byte[] unbounded(int length) {
+        byte[] max = new byte[LETTERS];
+        Arrays.fill(max, (byte) length);
+        return max;
+    }
+
+    private static void checkLength(int length) {
+        if (length < MIN_LEN || length > MAX_LEN) {
+            throw new IllegalArgumentException("Words must have " + MIN_LEN + " to " + MAX_LEN + " letters");
+        }
+    }
+
+    /**
+     * Canonical encoding of the constraint state: green letters by position, then the
+     * letters excluded from each open position, then each letter whose count is bounded
+     * beyond what the greens imply, with its minimum and maximum. Inputs that constrain the
+     * dictionary the same way through different guesses get the same key, and every
+     * unsatisfiable state is "!".
+     */
+    public String key() {
+        if (contradictory) {
+            return "!";
+        }
+        byte[] greens = new byte[LETTERS];
+        for (int i = 0; i < length; i++) {
+            if (sure[i] != NONE) {
+                if ((unsure[i] & bit(sure[i])) != 0) {
+                    return "!";
+                }
+                greens[sure[i] - 'a']++;
+            }
+        }
+
+        StringBuilder key = new StringBuilder(48);
+        for (int i = 0; i < length; i++) {
+            key.append(sure[i] == NONE ? '.' : sure[i]);
+        }
+        for (int i = 0; i < length; i++) {
+            key.append(':').append(Integer.toHexString(sure[i] == NONE ? unsure[i] & ~ban : 0));
+        }
+        key.append(':');
+        for (int letter = 0; letter < LETTERS; letter++) {
+            if (min[letter] > greens[letter] || max[letter] < length) {
+                key.append((char) ('a' + letter)).append(min[letter]).append(max[letter]);
+            }
+        }
+        return key.toString();
+    }
+
+    static int bit(char letter) {
+        return 1 << (letter - 'a');
+    }
+
+    public boolean matches(String candidate) {
+        if (candidate.length() != length) {
+            return false;
+        }
+        long word = PackedWords.encode(candidate);
+        return matches(word, PackedWords.letterMask(word, length));
+    }
+
+    /**
+     * Tests a packed word (see {@link PackedWords}) with its precomputed letter set in one
+     * pass over its positions; a letter's occurrences are only counted when its count is
+     * bounded beyond present or absent.
+     */
+    public boolean matches(long word, int letters) {
+        if (contradictory || (letters & contain) != contain || (letters & ban) != 0) {
+            return false;
+        }
+        int uncounted = letters & counted;
+        for (int i = 0; i < length; i++) {
+            int letter = PackedWords.letter(word, i);
+            int bit = 1 << letter;
+            if ((sure[i] != NONE && letter != sure[i] - 'a') || (unsure[i] & bit) != 0) {
+                return false;
+            }
+            if ((uncounted & bit) != 0) {
+                uncounted &= ~bit;
+                int occurrences = 1;
+                for (int j = i + 1; j < length; j++) {
+                    if (PackedWords.letter(word, j) == letter) {
+                        occurrences++;
+                    }
+                }
+                if (occurrences < min[letter] || occurrences > max[letter]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Letters per word. */
+    public int length() {
+        return length;
+    }
+
+    public boolean isSure(int position) {
+        return sure[position] != NONE;
+    }
+
+    public char sureLetter(int position) {
+        return sure[position];
+    }
+
+    public boolean isUnsure(int position, char letter) {
+        return (unsure[position] & bit(letter)) != 0;
+    }
+
+    /** True when no word can satisfy the constraints, e.g. conflicting greens across turns. */
+    public boolean isContradictory() {
+        return contradictory;
+    }
+
+    public int sureCount() {
+        return sureCount;
+    }
+
+    public int containMask() {
+        return contain;
+    }
+
+    public int banMask() {
+        return ban;
+    }
+
+    public int unsureMask(int position) {
+        return unsure[position];
+    }
+
+    /** Fewest occurrences of {@code letter} a matching word has. */
+    public int minCount(char letter) {
+        return min[letter - 'a'];
+    }
+
+    /** Most occurrences of {@code letter} a matching word has; the length when unbounded. */
+    public int maxCount(char letter) {
+        return max[letter - 'a'];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SolveConstraints)) {
+            return false;
+        }
+        SolveConstraints other = (SolveConstraints) o;
+        return contradictory == other.contradictory && Arrays.equals(sure, other.sure) && Arrays.equals(unsure, other.unsure)
+                && Arrays.equals(min, other.min) && Arrays.equals(max, other.max);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 * Arrays.hashCode(sure) + Arrays.hashCode(unsure)) + Arrays.hashCode(min)) + Arrays.hashCode(max) + (contradictory ? 1 : 0);
+    }
+}
@@ -0,0 +1,154 @@
+package com.yiranhu.wordle.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Instrumentation of the solve pipeline, published through Micrometer (Prometheus at
+ * {@code /actuator/prometheus}). Stage timers and candidate-set histograms are created up
+ * front, so recording is a clock read and a map lookup; with {@code wordle.metrics.enabled=false}
+ * every call returns after one null check, without even reading the clock.
+ *
+ * <p>Usage: {@code long start = metrics.start(); ...; metrics.stage(Stage.FILTER, start);}
+ */
+@Component
+public final class SolveMetrics {
+
+    /** Pipeline stages, used as the {@code stage} tag. */
+    public enum Stage { PARSE, FILTER, RANK, RESPOND, SERIALIZE }
+
+    /**
+     * How a solve was answered, used as the {@code path} tag; {@code COALESCED} shared an identical
+     * solve's ranking, {@code SPECULATED} was ranked ahead after the previous turn.
+     */
+    public enum Path { TREE, CACHE, RANKED, COALESCED, SPECULATED }
+
+    private static final SolveMetrics DISABLED = new SolveMetrics(null);
+
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+    private final Map<Path, Counter> paths = new EnumMap<>(Path.class);
+    private final DistributionSummary filterBefore;
+    private final DistributionSummary filterAfter;
+    private final DistributionSummary rankAnswers;
+
+    @Autowired
+    public SolveMetrics(ObjectProvider<MeterRegistry> registry, @Value("${wordle.metrics.enabled:true}") boolean enabled) {
+        this(enabled ? registry.getIfAvailable() : null);
+    }
+
+    /** Records to {@code registry}, or nothing if it is null. */
+    public SolveMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        if (registry == null) {
+            filterBefore = filterAfter = rankAnswers = null;
+            return;
+        }
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, Timer.builder("wordle.solve.stage")
+                    .description("Time spent in each stage of a solve")
+                    .tag("stage", stage.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (Path path : Path.values()) {
+            paths.put(path, Counter.builder("wordle.solve.path")
+                    .description("Solves by how they were answered")
+                    .tag("path", path.name().toLowerCase())
+                    .register(registry));
+        }
+        filterBefore = candidates("filter", "before");
+        filterAfter = candidates("filter", "after");
+        rankAnswers = candidates("rank", "before");
+    }
+
+    /** A no-op instance, for when metrics are turned off and for standalone use of the solver. */
+    public static SolveMetrics disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return registry != null;
+    }
+
+    /** Start time for {@link #stage}; 0 without reading the clock when disabled. */
+    public long start() {
+        return registry != null ? System.nanoTime() : 0;
+    }
+
+    public void stage(Stage stage, long start) {
+        if (registry != null) {
+            stages.get(stage).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Candidate-set sizes going into and coming out of a filter; {@code after} is only counted when enabled. */
+    public void filtered(int before, long[] after) {
+        if (registry != null) {
+            filterBefore.record(before);
+            filterAfter.record(DictionaryIndex.count(after));
+        }
+    }
+
+    /** Number of remaining answers a ranking had to split. */
+    public void ranked(long[] answers) {
+        if (registry != null) {
+            rankAnswers.record(DictionaryIndex.count(answers));
+        }
+    }
+
+    public void path(Path path) {
+        if (registry != null) {
+            paths.get(path).increment();
+        }
+    }
+
+    /** Publishes hit, miss, eviction and size metrics of a cache built with {@code recordStats()}. */
+    public void monitor(Cache<?, ?> cache, String name) {
+        if (registry != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, name);
+        }
+    }
+
+    public <T> void gauge(String name, String description, T target, ToDoubleFunction<T> value) {
+        if (registry != null) {
+            Gauge.builder(name, target, value).description(description).register(registry);
+        }
+    }
+
+    public <T> void gauge(String name, String description, String tag, String tagValue, T target, ToDoubleFunction<T> value) {
+        if (registry != null) {
+            Gauge.builder(name, target, value).description(description).tag(tag, tagValue).register(registry);
+        }
+    }
+
+    public <T> void counter(String name, String description, String tag, String tagValue, T target, ToDoubleFunction<T> count) {
+        if (registry != null) {
+            FunctionCounter.builder(name, target, count).description(description).tag(tag, tagValue).register(registry);
+        }
+    }
+
+    private DistributionSummary candidates(String stage, String point) {
+        return DistributionSummary.builder("wordle.solve.candidates")
+                .description("Candidate words before and after a pipeline stage")
+                .tag("stage", stage)
+                .tag("point", point)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
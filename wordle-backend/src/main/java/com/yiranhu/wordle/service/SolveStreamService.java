@@ -0,0 +1,57 @@
+package com.yiranhu.wordle.service;
+
+import com.yiranhu.wordle.model.WordleRequest;
+import com.yiranhu.wordle.model.WordleResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Pushes a solve over Server-Sent Events: a {@code progress} event whenever the best-so-far
+ * suggestions improve, then a final {@code result} event once ranking finishes or its
+ * time budget runs out.
+ */
+@Service
+public class SolveStreamService {
+
+    private final WordleSolver wordleSolver;
+    private final SolverExecutor solverExecutor;
+    private final long timeoutMs;
+
+    public SolveStreamService(WordleSolver wordleSolver, SolverExecutor solverExecutor,
+                              @Value("${wordle.stream.timeout-ms:30000}") long timeoutMs) {
+        this.wordleSolver = wordleSolver;
+        this.solverExecutor = solverExecutor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /** Throws {@link SolverUnavailableException} before anything is streamed if the solver is saturated. */
+    public SseEmitter stream(WordleRequest request) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        solverExecutor.submit(budgetNanos -> {
+            WordleResponse result = wordleSolver.solve(request, budgetNanos, interim -> send(emitter, "progress", interim));
+            send(emitter, "result", result);
+            return result;
+        }).whenComplete((result, error) -> {
+            if (error == null) {
+                emitter.complete();
+            } else {
+                // Includes a timeout and a client that went away mid-stream
+                emitter.completeWithError(error);
+            }
+        });
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, String name, WordleResponse response) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(response, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.yiranhu.wordle.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Runs solver work off the servlet threads, so a burst of expensive requests cannot starve
+ * cheap endpoints such as health checks. At most {@code concurrency} tasks run at once on
+ * platform threads or, on a JDK that has them, virtual threads; up to {@code queueCapacity}
+ * more wait, and anything beyond that is rejected at once. Every task gets a deadline: its
+ * remaining time is handed to the task as a ranking budget, and a task still unfinished
+ * shortly after the deadline fails with {@link SolverUnavailableException}.
+ */
+@Service
+public class SolverExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(SolverExecutor.class);
+
+    // How long past its deadline a task may run before the caller stops waiting
+    private static final long GRACE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final ExecutorService executor;
+    private final Semaphore admission;
+    // Only with virtual threads: one thread per task, so concurrency is bounded here instead
+    private final Semaphore running;
+    private final int concurrency;
+    private final int queueCapacity;
+    private final long timeoutNanos;
+    private final Duration retryAfter;
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    public SolverExecutor(@Value("${wordle.executor.mode:platform}") String mode,
+                          @Value("${wordle.executor.concurrency:0}") int concurrency,
+                          @Value("${wordle.executor.queue-capacity:64}") int queueCapacity,
+                          @Value("${wordle.executor.timeout:5s}") Duration timeout,
+                          @Value("${wordle.executor.retry-after:1s}") Duration retryAfter,
+                          SolveMetrics metrics) {
+        this.concurrency = concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+        this.timeoutNanos = timeout.toNanos();
+        this.retryAfter = retryAfter;
+        this.admission = new Semaphore(this.concurrency + queueCapacity);
+
+        ExecutorService virtual = mode.equals("virtual") ? virtualThreadExecutor() : null;
+        if (virtual != null) {
+            this.executor = virtual;
+            this.running = new Semaphore(this.concurrency);
+        } else {
+            AtomicInteger count = new AtomicInteger();
+            // Admission already bounds the backlog, so the pool's own queue never grows past it
+            this.executor = Executors.newFixedThreadPool(this.concurrency, task -> {
+                Thread thread = new Thread(task, "wordle-solver-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.running = null;
+        }
+        metrics.gauge("wordle.executor.in.flight", "Solver tasks running or queued", this, SolverExecutor::inFlight);
+        metrics.counter("wordle.executor.shed", "Solver tasks turned away", "reason", "overloaded", rejected, AtomicLong::get);
+        metrics.counter("wordle.executor.shed", "Solver tasks turned away", "reason", "timed_out", timedOut, AtomicLong::get);
+        log.info("Solver executor: {} threads, {} running and {} queued at most, {} timeout",
+                virtual != null ? "virtual" : "platform", this.concurrency, queueCapacity, timeout);
+    }
+
+    /**
+     * Submits {@code task}, which receives the nanoseconds left until its deadline. Throws
+     * {@link SolverUnavailableException} right away when the queue is full; a task that times
+     * out completes the returned future with one instead.
+     */
+    public <T> CompletableFuture<T> submit(LongFunction<T> task) {
+        if (!admission.tryAcquire()) {
+            rejected.incrementAndGet();
+            throw new SolverUnavailableException(SolverUnavailableException.Reason.OVERLOADED,
+                    "Solver is busy, please retry later", retryAfter);
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> run(task, deadline, result));
+        } catch (RejectedExecutionException e) {
+            admission.release();
+            throw new SolverUnavailableException(SolverUnavailableException.Reason.SHUTTING_DOWN,
+                    "Solver is shutting down", retryAfter);
+        }
+        CompletableFuture.delayedExecutor(timeoutNanos + GRACE_NANOS, TimeUnit.NANOSECONDS)
+                .execute(() -> {
+                    if (result.completeExceptionally(timeout())) {
+                        timedOut.incrementAndGet();
+                    }
+                });
+        return result;
+    }
+
+    private <T> void run(LongFunction<T> task, long deadline, CompletableFuture<T> result) {
+        boolean acquired = false;
+        try {
+            if (running != null) {
+                running.acquire();
+                acquired = true;
+            }
+            if (result.isDone()) {
+                return; // timed out while queued
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                if (result.completeExceptionally(timeout())) {
+                    timedOut.incrementAndGet();
+                }
+                return;
+            }
+            result.complete(task.apply(remaining));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(new SolverUnavailableException(SolverUnavailableException.Reason.SHUTTING_DOWN,
+                    "Solver is shutting down", retryAfter));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        } finally {
+            if (acquired) {
+                running.release();
+            }
+            admission.release();
+        }
+    }
+
+    private SolverUnavailableException timeout() {
+        return new SolverUnavailableException(SolverUnavailableException.Reason.TIMED_OUT,
+                "Solver did not answer in time, please retry later", retryAfter);
+    }
+
+    /** Tasks admitted and not yet finished, running or queued. */
+    public int inFlight() {
+        return concurrency + queueCapacity - admission.availablePermits();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    public long timedOut() {
+        return timedOut.get();
+    }
+
+    /** {@code Executors.newVirtualThreadPerTaskExecutor()} when the running JDK has it (21+). */
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads need JDK 21 or later; falling back to platform threads");
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,33 @@
+package com.yiranhu.wordle.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the solver executor sheds a request: its admission queue is full, the request
+ * waited or ran past its timeout, or the executor is shutting down. Also thrown for a
+ * dictionary whose index is still being built in the background.
+ */
+public class SolverUnavailableException extends RuntimeException {
+
+    public enum Reason { OVERLOADED, TIMED_OUT, SHUTTING_DOWN, LOADING }
+
+    private static final long serialVersionUID = 1L;
+
+    private final Reason reason;
+    private final Duration retryAfter;
+
+    public SolverUnavailableException(Reason reason, String message, Duration retryAfter) {
+        // Shedding is routine under load, so skip the stack trace
+        super(message, null, false, false);
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
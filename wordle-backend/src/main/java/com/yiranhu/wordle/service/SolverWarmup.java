@@ -0,0 +1,87 @@
+package com.yiranhu.wordle.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yiranhu.wordle.model.GuessFeedback;
+import com.yiranhu.wordle.model.WordleRequest;
+import com.yiranhu.wordle.model.WordleResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Plays random games of the default dictionary through the whole solve path (parsing,
+ * filtering, live ranking and JSON writing) for {@code wordle.warmup.duration} at startup, so
+ * that the JIT has compiled it before real requests arrive. Spring Boot only reports the
+ * application ready (readiness probes, {@code /api/wordle/health/ready}) once runners like
+ * this one are done. Guesses are drawn from the whole guess list, so most games leave the
+ * strategy tree and get ranked live. Warmup solves are counted in the metrics.
+ */
+@Component
+@ConditionalOnWebApplication
+public class SolverWarmup implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SolverWarmup.class);
+
+    private static final int MAX_TURNS = 3;
+
+    private final WordleSolver wordleSolver;
+    private final ObjectMapper objectMapper;
+    private final Duration duration;
+
+    public SolverWarmup(WordleSolver wordleSolver, ObjectMapper objectMapper,
+                        @Value("${wordle.warmup.duration:2s}") Duration duration) {
+        this.wordleSolver = wordleSolver;
+        this.objectMapper = objectMapper;
+        this.duration = duration;
+    }
+
+    @Override
+    public void run(String... args) throws JsonProcessingException {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        WordleDictionary dictionary = wordleSolver.dictionary();
+        List<String> answers = dictionary.answers();
+        List<String> guesses = dictionary.guesses();
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        int solves = 0;
+        int failed = 0;
+        long bytes = 0;
+        while (System.nanoTime() < deadline) {
+            String answer = answers.get(random.nextInt(answers.size()));
+            List<GuessFeedback> history = new ArrayList<>();
+            for (int turn = 1 + random.nextInt(MAX_TURNS); turn > 0; turn--) {
+                String guess = guesses.get(random.nextInt(guesses.size()));
+                // Hints rendered from the scored pattern, so the answer always stays possible
+                int pattern = Feedback.pattern(guess, answer);
+                history.add(new GuessFeedback(guess, Feedback.hints(guess, pattern)));
+            }
+            WordleRequest request = new WordleRequest();
+            request.setHistory(history);
+            // A budget of 0 would mean none at all
+            WordleResponse response = wordleSolver.solve(request, Math.max(1, deadline - System.nanoTime()), null);
+            bytes += objectMapper.writeValueAsBytes(response).length;
+            solves++;
+            if (!response.isSuccess()) {
+                failed++;
+            }
+        }
+        log.info("Warmed up the solver with {} solves ({} KB of JSON) in {} ms",
+                solves, bytes / 1024, (System.nanoTime() - start) / 1_000_000);
+        if (failed > 0) {
+            log.warn("{} warmup solves of possible games failed", failed);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.yiranhu.wordle.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.yiranhu.wordle.model.WordleResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Next turns solved ahead of time. After a live ranking the player most likely plays its top
+ * suggestion, and the feedback they get sends them to one of at most 243 next states; the
+ * states holding the most remaining answers are the likeliest. {@link WordleSolver} submits
+ * those, and they are ranked on one background thread into a bounded store that the
+ * follow-up request takes its response from.
+ *
+ * <p>Speculation only uses idle time: a task waits while a live ranking (any ranking for a
+ * request, see {@link GuessRanker#liveRankings()}) is running, and a running one gives up
+ * within a few scored guesses as soon as one starts. When the queue is full the oldest task
+ * is dropped. Rankings that were cancelled, or whose response left the store without being
+ * taken (evicted, expired, or of a retired dictionary), count as wasted work.
+ */
+final class Speculation {
+
+    private static final Logger log = LoggerFactory.getLogger(Speculation.class);
+
+    private static final int QUEUE_CAPACITY = 256;
+
+    /** A response ranked ahead, the guess it suggests first, and how long ranking it took. */
+    record Speculated(WordleResponse response, int guess, long nanos) {}
+
+    private final int partitions;
+    private final ThreadPoolExecutor executor;
+    private final Cache<WordleSolver.ResultKey, Speculated> store;
+    // Keys queued or being ranked, so that a state is never submitted twice
+    private final Set<WordleSolver.ResultKey> pending = ConcurrentHashMap.newKeySet();
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder used = new LongAdder();
+    private final LongAdder wasted = new LongAdder();
+    private final LongAdder usedNanos = new LongAdder();
+    private final LongAdder wastedNanos = new LongAdder();
+
+    /** Solves the {@code partitions} likeliest next states ahead (none if 0), keeping at most {@code maxEntries} for up to {@code ttl}. */
+    Speculation(int partitions, long maxEntries, Duration ttl, SolveMetrics metrics) {
+        this.partitions = Math.max(partitions, 0);
+        if (this.partitions == 0) {
+            executor = null;
+            store = null;
+            return;
+        }
+        store = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .evictionListener((WordleSolver.ResultKey key, Speculated speculated, RemovalCause cause) -> waste(speculated))
+                .build();
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY), task -> {
+            Thread thread = new Thread(task, "wordle-speculation");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }, (task, pool) -> {
+            if (!pool.isShutdown()) {
+                Runnable oldest = pool.getQueue().poll();
+                if (oldest instanceof Task discarded) {
+                    pending.remove(discarded.key);
+                    dropped.increment();
+                }
+                pool.execute(task);
+            }
+        });
+
+        String description = "Next-turn states ranked ahead, by what became of them";
+        metrics.counter("wordle.speculation.tasks", description, "outcome", "stored", stored, LongAdder::sum);
+        metrics.counter("wordle.speculation.tasks", description, "outcome", "cancelled", cancelled, LongAdder::sum);
+        metrics.counter("wordle.speculation.tasks", description, "outcome", "dropped", dropped, LongAdder::sum);
+        description = "Stored next-turn responses taken by a request or thrown away unused";
+        metrics.counter("wordle.speculation.responses", description, "outcome", "used", used, LongAdder::sum);
+        metrics.counter("wordle.speculation.responses", description, "outcome", "wasted", wasted, LongAdder::sum);
+        description = "Time spent ranking next turns ahead, by whether a request used the result";
+        metrics.counter("wordle.speculation.seconds", description, "outcome", "used", usedNanos, nanos -> nanos.sum() / 1e9);
+        metrics.counter("wordle.speculation.seconds", description, "outcome", "wasted", wastedNanos, nanos -> nanos.sum() / 1e9);
+        metrics.gauge("wordle.speculation.size", "Next-turn responses waiting in the store", store, Cache::estimatedSize);
+    }
+
+    boolean isEnabled() {
+        return partitions > 0;
+    }
+
+    /** How many next states to solve ahead after each live ranking. */
+    int partitions() {
+        return partitions;
+    }
+
+    /** Removes and returns the response stored for {@code key}, if one was ranked ahead. */
+    Speculated take(WordleSolver.ResultKey key) {
+        Speculated speculated = store == null ? null : store.asMap().remove(key);
+        if (speculated != null) {
+            used.increment();
+            usedNanos.add(speculated.nanos());
+        }
+        return speculated;
+    }
+
+    /** Whether {@code key} is stored, queued or being ranked already. */
+    boolean contains(WordleSolver.ResultKey key) {
+        return pending.contains(key) || store.getIfPresent(key) != null;
+    }
+
+    /**
+     * Queues {@code ranking} of the state {@code key}. It gets a stop signal for the ranker
+     * and returns null if it gave up, or else the response and its first guess.
+     */
+    void submit(WordleSolver.ResultKey key, Function<BooleanSupplier, Speculated> ranking) {
+        if (executor == null || contains(key) || !pending.add(key)) {
+            return;
+        }
+        executor.execute(new Task(key, ranking));
+    }
+
+    /** Throws away the stored responses of a replaced dictionary. */
+    void retire(long dictionaryVersion) {
+        if (store == null) {
+            return;
+        }
+        for (Map.Entry<WordleSolver.ResultKey, Speculated> entry : store.asMap().entrySet()) {
+            if (entry.getKey().dictionaryVersion() == dictionaryVersion && store.asMap().remove(entry.getKey(), entry.getValue())) {
+                waste(entry.getValue());
+            }
+        }
+    }
+
+    long hits() {
+        return used.sum();
+    }
+
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    // Any ranking for a request, whichever path it came from, takes precedence
+    private boolean busy() {
+        return GuessRanker.liveRankings() > 0 || executor.isShutdown();
+    }
+
+    // Sleeps until requests being ranked finish; false if the speculation was shut down, which interrupts the wait
+    private boolean awaitIdle() {
+        try {
+            GuessRanker.awaitNoLiveRankings();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return !executor.isShutdown();
+    }
+
+    private void waste(Speculated speculated) {
+        wasted.increment();
+        wastedNanos.add(speculated.nanos());
+    }
+
+    private final class Task implements Runnable {
+
+        private final WordleSolver.ResultKey key;
+        private final Function<BooleanSupplier, Speculated> ranking;
+
+        Task(WordleSolver.ResultKey key, Function<BooleanSupplier, Speculated> ranking) {
+            this.key = key;
+            this.ranking = ranking;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!awaitIdle()) {
+                    dropped.increment();
+                    return;
+                }
+                long start = System.nanoTime();
+                Speculated speculated = ranking.apply(Speculation.this::busy);
+                long nanos = System.nanoTime() - start;
+                if (speculated == null) {
+                    cancelled.increment();
+                    wastedNanos.add(nanos);
+                } else {
+                    store.put(key, new Speculated(speculated.response(), speculated.guess(), nanos));
+                    stored.increment();
+                }
+            } catch (RuntimeException e) {
+                cancelled.increment();
+                log.warn("Ranking a next turn ahead failed", e);
+            } finally {
+                pending.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.yiranhu.wordle.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bounded min-heap of the best {@code k} scored guesses. Ordering is by score, then
+ * guesses that are still possible answers, then lower guess index.
+ */
+final class TopK {
+
+    private static final double EPSILON = 1e-9;
+
+    private final int capacity;
+    private final double[] scores;
+    private final int[] guesses;
+    private final boolean[] candidates;
+    private int size;
+
+    TopK(int capacity) {
+        this.capacity = capacity;
+        this.scores = new double[capacity];
+        this.guesses = new int[capacity];
+        this.candidates = new boolean[capacity];
+    }
+
+    void offer(int guess, double score, boolean candidate) {
+        if (capacity == 0) {
+            return;
+        }
+        if (size < capacity) {
+            set(size, guess, score, candidate);
+            siftUp(size++);
+        } else if (better(score, candidate, guess, 0)) {
+            set(0, guess, score, candidate);
+            siftDown(0);
+        }
+    }
+
+    void addAll(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.guesses[i], other.scores[i], other.candidates[i]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Best-first list of the current entries; the heap itself is left untouched. */
+    List<RankedGuess> toList() {
+        TopK copy = new TopK(capacity);
+        copy.addAll(this);
+        List<RankedGuess> result = new ArrayList<>(size);
+        while (copy.size > 0) {
+            result.add(new RankedGuess(copy.guesses[0], copy.scores[0], copy.candidates[0]));
+            copy.size--;
+            copy.set(0, copy.guesses[copy.size], copy.scores[copy.size], copy.candidates[copy.size]);
+            copy.siftDown(0);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /** Whether (score, candidate, guess) ranks strictly above the entry at slot {@code i}. */
+    private boolean better(double score, boolean candidate, int guess, int i) {
+        if (Math.abs(score - scores[i]) > EPSILON) {
+            return score > scores[i];
+        }
+        if (candidate != candidates[i]) {
+            return candidate;
+        }
+        return guess < guesses[i];
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(scores[parent], candidates[parent], guesses[parent], i)) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && better(scores[worst], candidates[worst], guesses[worst], right)) {
+                worst = right;
+            }
+            if (!better(scores[i], candidates[i], guesses[i], worst)) {
+                return;
+            }
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void set(int i, int guess, double score, boolean candidate) {
+        guesses[i] = guess;
+        scores[i] = score;
+        candidates[i] = candidate;
+    }
+
+    private void swap(int a, int b) {
+        int guess = guesses[a];
+        double score = scores[a];
+        boolean candidate = candidates[a];
+        set(a, guesses[b], scores[b], candidates[b]);
+        set(b, guess, score, candidate);
+    }
+}
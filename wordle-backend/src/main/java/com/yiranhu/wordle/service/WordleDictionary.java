@@ -0,0 +1,287 @@
+package com.yiranhu.wordle.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One loaded dictionary and everything derived from it: the possible answers with their
+ * bitmap index, the allowed guesses, the guess x answer pattern matrix, a ranker over it and
+ * an optional strategy tree. Immutable once built, so a request that picked up a dictionary
+ * keeps a consistent view of it even if {@link DictionaryRegistry} swaps in a new version.
+ *
+ * <p>The guess list starts with the answers in the same order, followed by the words that are
+ * only allowed as guesses: guess {@code i} is answer {@code i} whenever {@code i < answers}.
+ *
+ * <p>All words have the same {@link #length() length}. The index, pattern matrix and ranker
+ * are built by {@link #build} right away. A dictionary made by {@link #define} builds them
+ * in the background once {@link #loadAsync} is called, and until they are ready any use of
+ * them fails fast with {@link SolverUnavailableException} rather than blocking a request.
+ */
+public final class WordleDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(WordleDictionary.class);
+
+    private static final Duration LOADING_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final String name;
+    private final int length;
+    private final long version;
+    private final int answerCount;
+    private final int guessCount;
+    private final Indexes indexes;
+    private final DecisionTree tree;
+
+    private WordleDictionary(String name, int length, long version, int answerCount, int guessCount, Indexes indexes, DecisionTree tree) {
+        this.name = name;
+        this.length = length;
+        this.version = version;
+        this.answerCount = answerCount;
+        this.guessCount = guessCount;
+        this.indexes = indexes;
+        this.tree = tree;
+    }
+
+    /**
+     * Builds a dictionary from its answers and allowed guesses (answers are always allowed),
+     * mapping or generating the pattern matrix at {@code patternsFile}, or with a null
+     * {@code patternsFile} computing it in memory.
+     */
+    public static WordleDictionary build(String name, List<String> answers, List<String> allowed, Path patternsFile, ForkJoinPool pool) {
+        WordleDictionary dictionary = define(name, answers, allowed, patternsFile, pool);
+        dictionary.load();
+        return dictionary;
+    }
+
+    /**
+     * Like {@link #build}, but leaves the index, pattern matrix and ranker to {@link #load} or
+     * {@link #loadAsync}. Answers must all have the same length; allowed guesses of other
+     * lengths are skipped, so one guess list can serve several lengths.
+     */
+    public static WordleDictionary define(String name, List<String> answers, List<String> allowed, Path patternsFile, ForkJoinPool pool) {
+        if (answers.isEmpty()) {
+            throw new IllegalArgumentException("Dictionary '" + name + "' has no answers");
+        }
+        int length = answers.get(0).length();
+        if (length < SolveConstraints.MIN_LEN || length > SolveConstraints.MAX_LEN) {
+            throw new IllegalArgumentException("Dictionary '" + name + "' has " + length + "-letter words, expected "
+                    + SolveConstraints.MIN_LEN + " to " + SolveConstraints.MAX_LEN);
+        }
+        Set<String> words = new LinkedHashSet<>();
+        for (String answer : answers) {
+            if (answer.length() != length) {
+                throw new IllegalArgumentException("Dictionary '" + name + "' mixes " + length + "-letter answers with '" + answer + "'");
+            }
+            words.add(answer);
+        }
+        List<String> answerWords = new ArrayList<>(words);
+        for (String word : allowed) {
+            if (word.length() == length) {
+                words.add(word);
+            }
+        }
+        List<String> guessWords = new ArrayList<>(words);
+
+        long version = PatternMatrix.fingerprint(guessWords, answerWords);
+        Indexes indexes = new Indexes(name, answerWords, guessWords, patternsFile, pool);
+        return new WordleDictionary(name, length, version, answerWords.size(), guessWords.size(), indexes, null);
+    }
+
+    /**
+     * A dictionary from parts that were built ahead of time, see {@link DictionarySnapshot}.
+     * {@code version} must be the {@link PatternMatrix#fingerprint(List, List) fingerprint} of
+     * the word lists, as for a dictionary built from them.
+     */
+    static WordleDictionary prebuilt(String name, long version, DictionaryIndex index, PackedWords guesses, PatternMatrix patterns,
+                                     ForkJoinPool pool) {
+        Indexes indexes = new Indexes(name, null, null, null, pool);
+        indexes.built = new Built(index, guesses, patterns, new GuessRanker(patterns, pool));
+        return new WordleDictionary(name, index.length(), version, index.size(), guesses.size(), indexes, null);
+    }
+
+    /** This dictionary with {@code tree}, if it was built for exactly these word lists. */
+    public WordleDictionary withTree(DecisionTree tree) {
+        if (tree != null && tree.fingerprint() != version) {
+            throw new IllegalArgumentException("Decision tree was built for a different word list");
+        }
+        return new WordleDictionary(name, length, version, answerCount, guessCount, indexes, tree);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** Letters per word. */
+    public int length() {
+        return length;
+    }
+
+    /** Fingerprint of the word lists, see {@link PatternMatrix#fingerprint(List, List)}. */
+    public long version() {
+        return version;
+    }
+
+    /** Whether the index, pattern matrix and ranker have been built. */
+    public boolean isLoaded() {
+        return indexes.built != null;
+    }
+
+    /** Builds the index, pattern matrix and ranker on the calling thread, unless they are built already. */
+    public void load() {
+        indexes.load();
+    }
+
+    /**
+     * Builds the index, pattern matrix and ranker on {@code executor}, unless they are built
+     * or being built already. A build that fails is retried on the next use.
+     */
+    public void loadAsync(Executor executor) {
+        indexes.loadAsync(executor);
+    }
+
+    /** Approximate memory held by the index, word arrays and pattern matrix; 0 until loaded. */
+    public long bytes() {
+        Built built = indexes.built;
+        return built == null ? 0 : built.bytes();
+    }
+
+    public int answerCount() {
+        return answerCount;
+    }
+
+    public int guessCount() {
+        return guessCount;
+    }
+
+    public DictionaryIndex index() {
+        return indexes.get().index();
+    }
+
+    /** Possible answers, in index order. */
+    public PackedWords answers() {
+        return index().words();
+    }
+
+    /** Allowed guesses: the answers first, then guess-only words. */
+    public PackedWords guesses() {
+        return indexes.get().guesses();
+    }
+
+    public PatternMatrix patterns() {
+        return indexes.get().patterns();
+    }
+
+    public GuessRanker ranker() {
+        return indexes.get().ranker();
+    }
+
+    /** The precomputed strategy tree, or null. */
+    public DecisionTree tree() {
+        return tree;
+    }
+
+    /** Whether guess {@code guess} is one of the answers set in {@code remaining}. */
+    public static boolean isCandidate(long[] remaining, int guess) {
+        return (guess >>> 6) < remaining.length && DictionaryIndex.contains(remaining, guess);
+    }
+
+    @Override
+    public String toString() {
+        return "WordleDictionary[" + name + ", length=" + length + ", answers=" + answerCount + ", guesses=" + guessCount
+                + ", version=" + Long.toHexString(version) + ", tree=" + (tree != null) + ", loaded=" + isLoaded() + "]";
+    }
+
+    private record Built(DictionaryIndex index, PackedWords guesses, PatternMatrix patterns, GuessRanker ranker) {
+
+        long bytes() {
+            return index.bytes() + index.words().bytes() + guesses.bytes() + patterns.bytes() + 8L * (patterns.answers() + 1);
+        }
+    }
+
+    // Shared by every copy made by withTree; the word lists are dropped once packed
+    private static final class Indexes {
+
+        private final String name;
+        private final Path patternsFile;
+        private final ForkJoinPool pool;
+        private final AtomicBoolean loading = new AtomicBoolean();
+        private List<String> answerWords;
+        private List<String> guessWords;
+        private volatile Built built;
+        private volatile Executor loader;
+
+        Indexes(String name, List<String> answerWords, List<String> guessWords, Path patternsFile, ForkJoinPool pool) {
+            this.name = name;
+            this.answerWords = answerWords;
+            this.guessWords = guessWords;
+            this.patternsFile = patternsFile;
+            this.pool = pool;
+        }
+
+        Built get() {
+            Built current = built;
+            if (current != null) {
+                return current;
+            }
+            Executor executor = loader;
+            if (executor == null) {
+                return load(); // not registered for a background build, e.g. a tool's own dictionary
+            }
+            loadAsync(executor);
+            throw new SolverUnavailableException(SolverUnavailableException.Reason.LOADING,
+                    "Dictionary '" + name + "' is still loading, please retry shortly", LOADING_RETRY_AFTER);
+        }
+
+        void loadAsync(Executor executor) {
+            loader = executor;
+            if (built != null || !loading.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        load();
+                    } catch (RuntimeException e) {
+                        log.warn("Cannot build indexes of dictionary '{}': {}", name, e.toString());
+                    } finally {
+                        loading.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                loading.set(false);
+            }
+        }
+
+        Built load() {
+            Built current = built;
+            if (current != null) {
+                return current;
+            }
+            synchronized (this) {
+                if (built == null) {
+                    long start = System.nanoTime();
+                    DictionaryIndex index = DictionaryIndex.build(answerWords);
+                    PackedWords guesses = PackedWords.of(guessWords);
+                    PatternMatrix patterns = patternsFile == null
+                            ? PatternMatrix.compute(guesses, index.words())
+                            : PatternMatrix.open(patternsFile, guesses, index.words());
+                    built = new Built(index, guesses, patterns, new GuessRanker(patterns, pool));
+                    answerWords = guessWords = null;
+                    log.info("Built indexes of dictionary '{}' ({}-letter words) in {} ms, {} KB",
+                            name, index.length(), (System.nanoTime() - start) / 1_000_000, built.bytes() / 1024);
+                }
+                return built;
+            }
+        }
+    }
+}
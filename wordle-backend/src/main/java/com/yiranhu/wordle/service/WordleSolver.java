@@ -1,509 +1,597 @@
 package com.yiranhu.wordle.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.core.io.ClassPathResource;
+import com.yiranhu.wordle.model.GuessFeedback;
+import com.yiranhu.wordle.model.RankedSuggestion;
+import com.yiranhu.wordle.model.SolverCacheStatistics;
+import com.yiranhu.wordle.model.WordleRequest;
 import com.yiranhu.wordle.model.WordleResponse;
+import java.time.Duration;
 import java.util.*;
-import java.io.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
+/**
+ * Stateless solver: every request builds its own {@link SolveConstraints} and only
+ * reads a shared, immutable {@link WordleDictionary}, so concurrent solves never see each
+ * other's hints. Each solve picks up the current version of its dictionary once and uses
+ * it throughout, so a dictionary reloaded meanwhile never mixes into a running request.
+ * The guesses' length selects among dictionaries of different word lengths.
+ */
 @Service
 public class WordleSolver {
+
+    private static final int SUGGESTIONS = 10;
+    private final DictionaryRegistry dictionaries;
+    // Responses by dictionary version and canonical constraint key; cached responses are never mutated
+    private final Cache<ResultKey, WordleResponse> results;
+    // Rankings in progress, joined by identical solves instead of ranking the same state again
+    private final Map<ResultKey, CompletableFuture<WordleResponse>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+    // Likely next turns after live rankings, solved ahead in the background
+    private final Speculation speculation;
+    private final SolveMetrics metrics;
     
-    private static final int LEN = 5;
-    private List<String> words = new ArrayList<>();
-    private List<String> vocab = new ArrayList<>();
-    private List<Character> ban = new ArrayList<>();
-    private List<Character> contain = new ArrayList<>();
-    private Map<Integer, Character> sure = new HashMap<>();
-    private List<Character>[] unsure = new ArrayList[LEN];
-    private boolean delima = false;
-    
-    public WordleSolver() {
-        initializeUnsureArray();
-        loadWordList();
-    }
-    
-    private void initializeUnsureArray() {
-        for (int i = 0; i < LEN; i++) {
-            unsure[i] = new ArrayList<>();
+    @Autowired
+    public WordleSolver(DictionaryRegistry dictionaries,
+                        @Value("${wordle.cache.max-weight:200000}") long cacheMaxWeight,
+                        @Value("${wordle.speculation.partitions:8}") int speculatedPartitions,
+                        @Value("${wordle.speculation.max-entries:10000}") long speculationMaxEntries,
+                        @Value("${wordle.speculation.ttl:10m}") Duration speculationTtl,
+                        SolveMetrics metrics) {
+        this.dictionaries = dictionaries;
+        this.metrics = metrics;
+        this.speculation = new Speculation(speculatedPartitions, speculationMaxEntries, speculationTtl, metrics);
+        results = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxWeight)
+                .weigher((ResultKey key, WordleResponse response) -> weight(response))
+                .recordStats()
+                .build();
+        metrics.monitor(results, "wordle.results");
+        // Entries of a replaced dictionary can never be hit again
+        dictionaries.onRetired(retired -> {
+            results.asMap().keySet().removeIf(key -> key.dictionaryVersion() == retired.version());
+            speculation.retire(retired.version());
+        });
+        for (int length = SolveConstraints.MIN_LEN; length <= SolveConstraints.MAX_LEN; length++) {
+            int letters = length;
+            metrics.gauge("wordle.dictionary.bytes", "Memory held by the loaded dictionaries of each word length",
+                    "length", String.valueOf(length), dictionaries, registry -> registry.bytes(letters));
         }
     }
-    
-    private void loadWordList() {
-        try {
-            ClassPathResource resource = new ClassPathResource("wordle-answers.txt");
-            BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream()));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                words.add(line.trim());
-                vocab.add(line.trim());
-            }
-            reader.close();
-        } catch (IOException e) {
-            // Fallback to a basic word list if file not found
-            loadFallbackWords();
-        }
+
+    /** A solver over the bundled dictionary only, for tools and benchmarks outside Spring; it solves nothing ahead. */
+    public WordleSolver(String patternsFile, int parallelism, long cacheMaxWeight, String treeFile, SolveMetrics metrics) {
+        this(DictionaryRegistry.bundled(patternsFile, parallelism, treeFile), cacheMaxWeight, 0, 0, Duration.ZERO, metrics);
     }
-    
-    private void loadFallbackWords() {
-        String[] fallbackWords = {
-            "aback", "abase", "abate", "abbey", "abbot", "abhor", "abide", "abled", "abode", "abort",
-            "about", "above", "abuse", "abyss", "acorn", "acrid", "actor", "acute", "adage", "adapt",
-            "adept", "admin", "admit", "adobe", "adopt", "adore", "adorn", "adult", "affix", "afire",
-            "afoot", "afoul", "after", "again", "agape", "agate", "agent", "agile", "aging", "aglow",
-            "agony", "agree", "ahead", "aider", "aisle", "alarm", "album", "alert", "algae", "alibi",
-            "alien", "align", "alike", "alive", "allay", "alley", "allot", "allow", "alloy", "aloft",
-            "alone", "along", "aloof", "aloud", "alpha", "altar", "alter", "amass", "amaze", "amber",
-            "amend", "amiss", "amity", "among", "ample", "amply", "amuse", "angel", "anger", "angle",
-            "angry", "angst", "anime", "ankle", "annex", "annoy", "annul", "anode", "antic", "anvil",
-            "aorta", "apart", "aphid", "aping", "apnea", "apple", "apply", "apron", "aptly", "arbor",
-            "ardor", "arena", "argue", "arise", "armor", "aroma", "arose", "array", "arrow", "arson",
-            "artsy", "ascot", "ashen", "aside", "askew", "assay", "asset", "atoll", "atone", "attic",
-            "audio", "audit", "augur", "aunty", "avail", "avert", "avian", "avoid", "await", "awake",
-            "award", "aware", "awash", "awful", "awoke", "axial", "axiom", "axion", "azure", "bacon",
-            "badge", "badly", "bagel", "baggy", "baker", "baler", "balls", "balmy", "banal", "banjo",
-            "barge", "baron", "basal", "basic", "basil", "basin", "basis", "baste", "batch", "bathe",
-            "baton", "batty", "bawdy", "bayou", "beach", "beady", "beard", "beast", "beech", "beefy",
-            "befit", "began", "begat", "beget", "begin", "begun", "beige", "being", "belch", "belie",
-            "belle", "belly", "below", "bench", "beret", "berry", "berth", "beset", "betel", "bevel",
-            "bezel", "bible", "bicep", "biddy", "bigot", "bilge", "billy", "binge", "bingo", "biome",
-            "birch", "birth", "bison", "bitch", "biter", "bitty", "black", "blade", "blame", "bland",
-            "blank", "blare", "blast", "blaze", "bleak", "bleat", "bleed", "bleep", "blend", "bless",
-            "blimp", "blind", "blink", "bliss", "blitz", "bloat", "block", "bloke", "blond", "blood",
-            "bloom", "blown", "bluer", "bluff", "blunt", "blurb", "blurt", "blush", "board", "boast",
-            "bobby", "boney", "bongo", "bonus", "booby", "boost", "booth", "booty", "booze", "boozy",
-            "borax", "borne", "bosom", "bossy", "botch", "bough", "boule", "bound", "bowel", "boxer",
-            "brace", "braid", "brain", "brake", "brand", "brash", "brass", "brave", "bravo", "brawl",
-            "brawn", "bread", "break", "breed", "briar", "bribe", "brick", "bride", "brief", "brine",
-            "bring", "brink", "briny", "brisk", "broad", "broil", "broke", "brood", "brook", "broom",
-            "broth", "brown", "brunt", "brush", "brute", "buddy", "budge", "buggy", "bugle", "build",
-            "built", "bulge", "bulky", "bully", "bunch", "bunny", "burly", "burnt", "burst", "bused",
-            "bushy", "butch", "butte", "buxom", "buyer", "bylaw", "cabal", "cabby", "cabin", "cable",
-            "cacao", "cache", "cacti", "caddy", "cadet", "cagey", "cairn", "camel", "cameo", "canal",
-            "candy", "canny", "canoe", "canon", "caper", "caput", "carat", "cargo", "carol", "carry",
-            "carve", "caste", "catch", "cater", "catty", "caulk", "cause", "cavil", "cease", "cedar",
-            "cello", "chafe", "chaff", "chain", "chair", "chalk", "champ", "chant", "chaos", "chard",
-            "charm", "chart", "chase", "chasm", "cheap", "cheat", "check", "cheek", "cheer", "chess",
-            "chest", "chick", "chide", "chief", "child", "chili", "chill", "chime", "china", "chirp",
-            "chock", "choir", "choke", "chomp", "chord", "chore", "chose", "chuck", "chump", "chunk",
-            "churn", "chute", "cider", "cigar", "cinch", "circa", "civic", "civil", "clack", "claim",
-            "clamp", "clang", "clank", "clash", "clasp", "class", "clean", "clear", "cleat", "cleft",
-            "clerk", "click", "cliff", "climb", "cling", "clink", "cloak", "clock", "close", "cloth",
-            "cloud", "clout", "clove", "clown", "cluck", "clued", "clump", "clung", "coach", "coast",
-            "cobra", "cocoa", "colon", "color", "comet", "comfy", "comic", "comma", "conch", "condo",
-            "conic", "copse", "coral", "corer", "corny", "couch", "cough", "could", "count", "coupe",
-            "court", "coven", "cover", "covet", "covey", "cower", "coyly", "crack", "craft", "cramp",
-            "crane", "crank", "crash", "crass", "crate", "crave", "crawl", "craze", "crazy", "creak",
-            "cream", "credo", "creed", "creek", "creep", "creme", "crepe", "crept", "cress", "crest",
-            "crick", "cried", "crier", "cries", "crime", "crimp", "crisp", "croak", "crook", "cross",
-            "croup", "crowd", "crown", "crude", "cruel", "crumb", "crump", "crush", "crust", "crypt",
-            "cubic", "cumin", "curio", "curly", "curry", "curse", "curve", "curvy", "cutie", "cyber",
-            "cycle", "cynic", "daddy", "daily", "dairy", "daisy", "dally", "dance", "dandy", "datum",
-            "daunt", "dealt", "death", "debar", "debit", "debug", "debut", "decal", "decay", "decor",
-            "decoy", "decry", "defer", "deign", "deity", "delay", "delta", "delve", "demon", "demur",
-            "denim", "dense", "depot", "depth", "derby", "deter", "detox", "deuce", "devil", "diary",
-            "dicey", "digit", "dilly", "dimly", "diner", "dingo", "dingy", "diode", "dirge", "dirty",
-            "disco", "ditch", "ditto", "ditty", "diver", "dizzy", "dodge", "dodgy", "dogma", "doing",
-            "dolly", "donor", "donut", "dopey", "doubt", "dough", "dowdy", "dowel", "downy", "dowry",
-            "dozen", "draft", "drain", "drake", "drama", "drank", "drape", "drawl", "drawn", "dread",
-            "dream", "dress", "dried", "drier", "drift", "drill", "drink", "drive", "droit", "droll",
-            "drone", "drool", "droop", "dross", "drove", "drown", "druid", "drunk", "dryer", "dryly",
-            "duchy", "dully", "dummy", "dumpy", "dunce", "dusky", "dusty", "dutch", "duvet", "dwarf",
-            "dwell", "dwelt", "dying", "eager", "eagle", "early", "earth", "easel", "eaten", "eater",
-            "ebony", "eclat", "edict", "edify", "eerie", "egret", "eight", "eject", "eking", "elate",
-            "elbow", "elder", "elect", "elegy", "elfin", "elide", "elite", "elope", "elude", "email",
-            "embed", "ember", "emcee", "empty", "enact", "endow", "enema", "enemy", "enjoy", "ennui",
-            "ensue", "enter", "entry", "envoy", "epoch", "epoxy", "equal", "equip", "erase", "erect",
-            "erode", "error", "erupt", "essay", "ester", "ether", "ethic", "ethos", "event", "every",
-            "evict", "evoke", "exact", "exalt", "excel", "exert", "exile", "exist", "expel", "extol",
-            "extra", "exult", "eying", "fable", "facet", "faint", "fairy", "faith", "false", "fancy",
-            "fanny", "farce", "fatal", "fatty", "fault", "fauna", "favor", "feast", "fecal", "feign",
-            "fella", "felon", "femme", "femur", "fence", "feral", "ferry", "fetal", "fetch", "fetid",
-            "fetus", "fever", "fewer", "fiber", "fibre", "ficus", "field", "fiend", "fiery", "fifth",
-            "fifty", "fight", "filch", "filet", "filly", "filmy", "filth", "final", "finch", "finer",
-            "first", "fishy", "fixer", "fizzy", "fjord", "flack", "flail", "flair", "flake", "flame",
-            "flank", "flare", "flash", "flask", "fleck", "fleet", "flesh", "flick", "flier", "fling",
-            "flint", "flirt", "float", "flock", "flood", "floor", "flora", "floss", "flour", "flout",
-            "flown", "fluff", "fluid", "fluke", "flume", "flung", "flunk", "flush", "flute", "flyer",
-            "foamy", "focal", "focus", "foggy", "foist", "folio", "folly", "foray", "force", "forge",
-            "forgo", "forte", "forth", "forty", "forum", "found", "foyer", "frail", "frame", "frank",
-            "fraud", "freak", "freed", "freer", "fresh", "friar", "fried", "frill", "frisk", "fritz",
-            "frock", "frond", "front", "frost", "froth", "frown", "froze", "fruit", "fudge", "fugue",
-            "fully", "fungi", "funky", "funny", "furor", "furry", "fussy", "fuzzy", "gaffe", "gaily",
-            "gamer", "gamma", "gamut", "gassy", "gaudy", "gauge", "gaunt", "gauze", "gavel", "gawky",
-            "gayer", "gayly", "gazer", "gecko", "geeky", "geese", "genie", "genre", "ghost", "ghoul",
-            "giant", "giddy", "girly", "girth", "given", "giver", "glade", "gland", "glare", "glass",
-            "glaze", "gleam", "glean", "glide", "glint", "gloat", "globe", "gloom", "glory", "gloss",
-            "glove", "glowy", "gluey", "gluon", "glute", "glyph", "gnarl", "gnash", "gnome", "godly",
-            "going", "golem", "golly", "gonad", "goner", "goody", "gooey", "goofy", "goose", "gorge",
-            "gouge", "gourd", "grace", "grade", "graft", "grail", "grain", "grand", "grant", "grape",
-            "graph", "grasp", "grass", "grate", "grave", "gravy", "graze", "great", "greed", "green",
-            "greet", "grief", "grill", "grime", "grind", "gripe", "grist", "gritty", "gross", "group",
-            "grout", "grove", "growl", "grown", "gruel", "gruff", "grunt", "guard", "guava", "guess",
-            "guest", "guide", "guild", "guile", "guilt", "guise", "gulch", "gully", "gumbo", "gummy",
-            "guppy", "gusto", "gusty", "gypsy", "habit", "hairy", "halve", "handy", "happy", "hardy",
-            "harem", "harpy", "harry", "harsh", "haste", "hasty", "hatch", "hater", "haunt", "haute",
-            "haven", "havoc", "hawks", "hazel", "heady", "heard", "heart", "heath", "heave", "heavy",
-            "hedge", "hefty", "heist", "helix", "hello", "hence", "heron", "hilly", "hinge", "hippo",
-            "hippy", "hitch", "hoard", "hobby", "hocus", "hoist", "holly", "homer", "honey", "honor",
-            "horde", "horny", "horse", "hotel", "hotly", "hound", "house", "hovel", "hover", "howdy",
-            "human", "humid", "humor", "humph", "humus", "hunch", "hunky", "hurry", "husky", "hussy",
-            "hutch", "hydro", "hyena", "hymen", "hyper", "icily", "icing", "ideal", "idiom", "idiot",
-            "idler", "idyll", "igloo", "iliac", "image", "imbue", "impel", "imply", "inane", "inbox",
-            "incur", "index", "indie", "inept", "inert", "infer", "ingot", "inlay", "inlet", "inner",
-            "input", "inter", "intro", "inure", "ionic", "irate", "irony", "islet", "issue", "itchy",
-            "ivory", "jaunt", "jazzy", "jelly", "jerky", "jetty", "jewel", "jiffy", "joint", "joist",
-            "joker", "jolly", "joust", "judge", "juice", "juicy", "jumbo", "jumpy", "junta", "junto",
-            "juror", "kappa", "karma", "kayak", "kebab", "kedge", "kempt", "keyed", "khaki", "kinky",
-            "kiosk", "kitty", "knack", "knave", "knead", "kneed", "kneel", "knelt", "knife", "knock",
-            "knoll", "known", "koala", "krill", "label", "labor", "laden", "ladle", "lager", "lance",
-            "lanky", "lapel", "lapse", "large", "larva", "lasso", "latch", "later", "lathe", "latte",
-            "laugh", "layer", "leach", "leafy", "leaky", "leant", "leapt", "learn", "lease", "leash",
-            "least", "leave", "ledge", "leech", "leery", "lefty", "legal", "leggy", "lemon", "lemur",
-            "leper", "level", "lever", "libel", "liege", "light", "liken", "lilac", "limbo", "limit",
-            "linen", "liner", "lingo", "lipid", "lithe", "liver", "livid", "llama", "loamy", "loath",
-            "lobby", "local", "locus", "lodge", "lofty", "logic", "login", "loopy", "loose", "lorry",
-            "loser", "louse", "lousy", "lover", "lower", "lowly", "loyal", "lucid", "lucky", "lumen",
-            "lumpy", "lunar", "lunch", "lunge", "lupus", "lurch", "lurid", "lusty", "lying", "lymph",
-            "lynch", "lyric", "macaw", "macho", "macro", "madam", "madly", "mafia", "magic", "magma",
-            "maize", "major", "maker", "mambo", "mamma", "mammy", "manga", "mange", "mango", "mangy",
-            "mania", "manic", "manly", "manna", "manor", "maple", "march", "marry", "marsh", "mason",
-            "masse", "match", "matey", "mauve", "maxim", "maybe", "mayor", "mealy", "meant", "meaty",
-            "mecca", "medal", "media", "medic", "melee", "melon", "mercy", "merge", "merit", "merry",
-            "metal", "meter", "metro", "micro", "midge", "midst", "might", "milky", "mimic", "mince",
-            "miner", "minim", "minor", "minty", "minus", "mirth", "miser", "missy", "mocha", "modal",
-            "model", "modem", "mogul", "moist", "molar", "moldy", "money", "month", "moody", "moose",
-            "moped", "moral", "moron", "morph", "mossy", "motel", "motif", "motor", "motto", "moult",
-            "mound", "mount", "mourn", "mouse", "mousy", "mouth", "mover", "movie", "mower", "mucky",
-            "mucus", "muddy", "mulch", "mummy", "munch", "mural", "murky", "mushy", "music", "musky",
-            "musty", "myrrh", "nadir", "naive", "nanny", "nasal", "nasty", "natal", "naval", "navel",
-            "needy", "neigh", "nerdy", "nerve", "never", "newer", "newly", "newsy", "newts", "nicer",
-            "niche", "niece", "night", "ninja", "ninny", "ninth", "noble", "nobly", "noise", "noisy",
-            "nomad", "noose", "north", "nosey", "notch", "novel", "nudge", "nurse", "nutty", "nylon",
-            "nymph", "oaken", "obese", "occur", "ocean", "octal", "octet", "odder", "oddly", "offal",
-            "offer", "often", "olden", "older", "olive", "ombre", "omega", "onion", "onset", "opera",
-            "opine", "opium", "optic", "orbit", "order", "organ", "other", "otter", "ought", "ounce",
-            "outdo", "outer", "outgo", "ovary", "ovate", "overt", "ovine", "ovoid", "owing", "owner",
-            "oxide", "ozone", "paddy", "pagan", "paint", "paler", "palsy", "panel", "panic", "pansy",
-            "pants", "papal", "paper", "parer", "parka", "parry", "parse", "party", "pasta", "paste",
-            "pasty", "patch", "patio", "patsy", "patty", "pause", "payee", "payer", "peace", "peach",
-            "pearl", "pecan", "pedal", "penal", "pence", "penne", "penny", "perch", "peril", "perky",
-            "pesky", "pesto", "petal", "petty", "phase", "phone", "phony", "photo", "piano", "picky",
-            "piece", "piety", "piggy", "pilot", "pinch", "piney", "pinky", "pinto", "piper", "pique",
-            "pitch", "pithy", "pivot", "pixel", "pixie", "pizza", "place", "plaid", "plain", "plait",
-            "plane", "plank", "plant", "plate", "plaza", "plead", "pleat", "plied", "plier", "pluck",
-            "plumb", "plume", "plump", "plunk", "plush", "poesy", "point", "poise", "poker", "polar",
-            "polka", "polyp", "pooch", "poppy", "porch", "poser", "posit", "posse", "pouch", "pound",
-            "pouty", "power", "prank", "prawn", "preen", "press", "price", "prick", "pride", "pried",
-            "prime", "primo", "print", "prior", "prism", "privy", "prize", "probe", "prone", "prong",
-            "proof", "prose", "proud", "prove", "prowl", "proxy", "prude", "prune", "psalm", "pubic",
-            "pudgy", "puffy", "pulpy", "pulse", "punch", "pupil", "puppy", "puree", "purer", "purge",
-            "purse", "pushy", "putty", "pygmy", "quack", "quail", "quake", "qualm", "quark", "quart",
-            "quash", "quasi", "queen", "queer", "quell", "query", "quest", "queue", "quick", "quiet",
-            "quill", "quilt", "quirk", "quite", "quota", "quote", "quoth", "rabbi", "rabid", "racer",
-            "radar", "radii", "radio", "rainy", "raise", "rajah", "rally", "ralph", "ramen", "ranch",
-            "randy", "range", "rapid", "rarer", "raspy", "ratio", "ratty", "raven", "rayon", "razor",
-            "reach", "react", "ready", "realm", "rearm", "rebar", "rebel", "rebus", "rebut", "recap",
-            "recur", "recut", "reedy", "refer", "refit", "regal", "rehab", "reign", "relax", "relay",
-            "relic", "remit", "renal", "renew", "repay", "repel", "reply", "rerun", "reset", "resin",
-            "retch", "retro", "retry", "reuse", "revel", "revue", "rhino", "rhyme", "rider", "ridge",
-            "rifle", "right", "rigid", "rigor", "rinse", "ripen", "riper", "risen", "riser", "risky",
-            "rival", "river", "rivet", "roach", "roast", "robin", "robot", "rocky", "rodeo", "roger",
-            "rogue", "roomy", "roost", "rotor", "rouge", "rough", "round", "rouse", "route", "rover",
-            "rowdy", "rower", "royal", "ruddy", "ruder", "rugby", "ruined", "ruler", "rumba", "rumor",
-            "rural", "rusty", "sadly", "safer", "saint", "salad", "sally", "salon", "salsa", "salty",
-            "salve", "salvo", "sandy", "saner", "sappy", "sassy", "satin", "satyr", "sauce", "saucy",
-            "sauna", "saute", "savor", "savvy", "scald", "scale", "scalp", "scaly", "scamp", "scant",
-            "scare", "scarf", "scary", "scene", "scent", "scion", "scoff", "scold", "scone", "scoop",
-            "scope", "score", "scorn", "scour", "scout", "scowl", "scram", "scrap", "scree", "screw",
-            "scrub", "scrum", "scuba", "sedan", "seedy", "segue", "seize", "semen", "sense", "sepia",
-            "serif", "serum", "serve", "setup", "seven", "sever", "sewer", "shack", "shade", "shady",
-            "shaft", "shake", "shaky", "shale", "shall", "shalt", "shame", "shank", "shape", "shard",
-            "share", "shark", "sharp", "shave", "shawl", "shear", "sheen", "sheep", "sheer", "sheet",
-            "sheik", "shelf", "shell", "shied", "shift", "shill", "shine", "shiny", "shire", "shirk",
-            "shirt", "shoal", "shock", "shone", "shook", "shoot", "shore", "shorn", "short", "shout",
-            "shove", "shown", "showy", "shrew", "shrub", "shrug", "shuck", "shunt", "shush", "shyly",
-            "siege", "sieve", "sight", "sigma", "silky", "silly", "since", "sinew", "singe", "siren",
-            "sissy", "sitar", "sixth", "sixty", "skate", "skier", "skiff", "skill", "skimp", "skirt",
-            "skulk", "skull", "skunk", "slack", "slain", "slang", "slant", "slash", "slate", "slave",
-            "sleek", "sleep", "sleet", "slept", "slice", "slick", "slide", "slime", "slimy", "sling",
-            "slink", "sloop", "slope", "slosh", "sloth", "slump", "slung", "slunk", "slurp", "slush",
-            "slyly", "smack", "small", "smart", "smash", "smear", "smell", "smelt", "smile", "smirk",
-            "smite", "smith", "smock", "smoke", "smoky", "smote", "snack", "snail", "snake", "snaky",
-            "snare", "snarl", "sneak", "sneer", "snide", "sniff", "snipe", "snoop", "snore", "snort",
-            "snout", "snowy", "snuck", "snuff", "snug", "soapy", "sober", "soggy", "solar", "solid",
-            "solve", "sonar", "sonic", "sooth", "sooty", "sorry", "sound", "south", "sower", "space",
-            "spade", "spank", "spare", "spark", "spasm", "spawn", "speak", "spear", "speck", "speed",
-            "spell", "spelt", "spend", "spent", "sperm", "spice", "spicy", "spied", "spiel", "spike",
-            "spiky", "spill", "spilt", "spine", "spiny", "spire", "spite", "splat", "split", "spoil",
-            "spoke", "spoof", "spook", "spool", "spoon", "spore", "sport", "spout", "spray", "spree",
-            "sprig", "spunk", "spurn", "spurt", "squad", "squat", "squib", "stack", "staff", "stage",
-            "staid", "stain", "stair", "stake", "stale", "stalk", "stall", "stamp", "stand", "stank",
-            "stare", "stark", "start", "stash", "state", "stave", "stead", "steak", "steal", "steam",
-            "steed", "steel", "steep", "steer", "stein", "stern", "stick", "stiff", "still", "stilt",
-            "sting", "stink", "stint", "stock", "stoic", "stoke", "stole", "stomp", "stone", "stony",
-            "stood", "stool", "stoop", "store", "stork", "storm", "story", "stout", "stove", "strap",
-            "straw", "stray", "strip", "strut", "stuck", "study", "stuff", "stump", "stung", "stunk",
-            "stunt", "style", "suave", "sugar", "suing", "suite", "sulky", "sully", "sumac", "sunny",
-            "super", "surer", "surge", "surly", "sushi", "swami", "swamp", "swank", "swarm", "swash",
-            "swath", "swear", "sweat", "sweep", "sweet", "swell", "swept", "swift", "swill", "swine",
-            "swing", "swirl", "swish", "swiss", "swoon", "swoop", "sword", "swore", "sworn", "swung",
-            "synod", "syrup", "tabby", "table", "taboo", "tacit", "tacky", "taffy", "taint", "taken",
-            "taker", "tally", "talon", "tamer", "tango", "tangy", "taper", "tapir", "tardy", "tarot",
-            "taste", "tasty", "tatty", "taunt", "tawny", "teach", "teary", "tease", "teddy", "teeth",
-            "tempo", "tenet", "tenor", "tense", "tenth", "tepee", "tepid", "terra", "terse", "testy",
-            "thank", "theft", "their", "theme", "there", "these", "theta", "thick", "thief", "thigh",
-            "thing", "think", "third", "thong", "thorn", "those", "three", "threw", "throb", "throw",
-            "thrum", "thumb", "thump", "thunk", "thyme", "tiara", "tibia", "tidal", "tiger", "tight",
-            "tilde", "timer", "timid", "tinge", "tipsy", "titan", "tithe", "title", "toast", "today",
-            "toddy", "token", "tonal", "tonga", "tonic", "tooth", "topaz", "topic", "torch", "torso",
-            "torus", "total", "totem", "touch", "tough", "towel", "tower", "toxic", "toxin", "trace",
-            "track", "tract", "trade", "trail", "train", "trait", "tramp", "trash", "trawl", "tread",
-            "treat", "trend", "triad", "trial", "tribe", "trice", "trick", "tried", "tripe", "trite",
-            "troll", "troop", "trope", "trout", "trove", "truce", "truck", "truly", "trump", "trunk",
-            "truss", "trust", "truth", "tryst", "tubal", "tuber", "tulip", "tulle", "tumor", "tunic",
-            "turbo", "tutor", "twang", "tweak", "tweed", "tweet", "twice", "twine", "twirl", "twist",
-            "twits", "tying", "typal", "ulcer", "ultra", "umbra", "uncle", "uncut", "under", "undid",
-            "undue", "unfed", "unfit", "unify", "union", "unite", "unity", "unlit", "unmet", "unset",
-            "untie", "until", "unwed", "unzip", "upend", "upper", "upset", "urban", "urine", "usage",
-            "usher", "using", "usual", "usurp", "utile", "utter", "vague", "valet", "valid", "valor",
-            "value", "valve", "vapid", "vapor", "vault", "vaunt", "vegan", "vein", "venal", "venom",
-            "venue", "verge", "verse", "verso", "verve", "vicar", "video", "vigil", "vigor", "villa",
-            "vinyl", "viola", "viper", "viral", "virus", "visit", "visor", "vista", "vital", "vivid",
-            "vixen", "vocal", "vodka", "vogue", "voice", "voila", "vomit", "voter", "vouch", "vowel",
-            "wacky", "wafer", "wager", "wagon", "waist", "waive", "waltz", "warty", "waste", "watch",
-            "water", "wavy", "waxen", "weary", "weave", "wedge", "weedy", "weigh", "weird", "welch",
-            "welsh", "wench", "whack", "whale", "wharf", "wheat", "wheel", "whelp", "where", "which",
-            "whiff", "while", "whine", "whiny", "whirl", "whisk", "whist", "white", "whole", "whoop",
-            "whose", "widen", "wider", "widow", "width", "wield", "wight", "willy", "wimpy", "wince",
-            "winch", "windy", "wine", "wing", "wink", "winny", "wiped", "wiper", "wired", "wiry",
-            "wisdom", "wise", "wish", "wispy", "witty", "wizen", "woken", "woman", "women", "woody",
-            "wooer", "wooly", "woozy", "wordy", "world", "worry", "worse", "worst", "worth", "would",
-            "wound", "woven", "wrack", "wrath", "wreak", "wreck", "wrest", "wring", "wrist", "write",
-            "writ", "wrong", "wrote", "wrung", "wryly", "yacht", "yahoo", "yearn", "yeast", "yield",
-            "young", "youth", "zebra", "zesty", "zilch", "zippy", "zonal", "zoned", "zones", "zooms"
-        };
-        
-        for (String word : fallbackWords) {
-            words.add(word);
-            vocab.add(word);
+
+    /** Solves a request from its history when present, otherwise from its single word and hints. */
+    public WordleResponse solve(WordleRequest request) {
+        return solve(request, null);
+    }
+
+    /**
+     * Like {@link #solve(WordleRequest)}, honouring the request's time budget: when it runs out
+     * the best suggestions found so far are returned with {@code complete} set to false.
+     * {@code progress}, if given, receives interim best-so-far responses while ranking runs.
+     */
+    public WordleResponse solve(WordleRequest request, Consumer<WordleResponse> progress) {
+        return solve(request, 0, progress);
+    }
+
+    /**
+     * Like {@link #solve(WordleRequest, Consumer)}, with {@code maxBudgetNanos} (if positive)
+     * capping the request's own budget, e.g. so that ranking ends before an executor timeout.
+     */
+    public WordleResponse solve(WordleRequest request, long maxBudgetNanos, Consumer<WordleResponse> progress) {
+        if (request == null) {
+            return new WordleResponse(null, "Request must not be null", false);
+        }
+        List<GuessFeedback> history = request.getHistory() != null && !request.getHistory().isEmpty()
+                ? request.getHistory()
+                : Collections.singletonList(new GuessFeedback(request.getWord(), request.getHints()));
+        long budgetNanos = request.getBudgetMs() != null ? TimeUnit.MILLISECONDS.toNanos(request.getBudgetMs()) : 0;
+        if (maxBudgetNanos > 0 && (budgetNanos <= 0 || budgetNanos > maxBudgetNanos)) {
+            budgetNanos = maxBudgetNanos;
         }
+        return solve(request.getDictionary(), history, budgetNanos, progress);
     }
 
     public WordleResponse solve(String word, String hints) {
-        try {
-            if (word == null || word.length() != 5) {
-                return new WordleResponse(null, "Word must be exactly 5 letters", false);
-            }
+        return solve(Collections.singletonList(new GuessFeedback(word, hints)));
+    }
 
-            if (hints == null || hints.split(" ").length != 5) {
-                return new WordleResponse(null, "Hints must be in format: 'x x x x x' (5 characters with spaces)", false);
-            }
+    /**
+     * Solves from an ordered list of guesses and their hints. All turns are merged into one
+     * constraint before filtering, so a five-turn game costs a single pass over the index.
+     */
+    public WordleResponse solve(List<GuessFeedback> history) {
+        return solve((String) null, history, 0, null);
+    }
 
-            // Reset state for new solve
-            resetState();
-            
-            // Parse hints
-            String[] hintArray = hints.split(" ");
-            for (int i = 0; i < 5; i++) {
-                char letter = word.charAt(i);
-                char hint = hintArray[i].charAt(0);
-                
-                if (hint == '-') {
-                    ban.add(letter);
-                    unsure[i].add(letter);
-                } else if (hint == 'x') {
-                    contain.add(letter);
-                    unsure[i].add(letter);
-                } else {
-                    sure.put(i, letter);
-                }
-            }
-            
-            // Apply your original filtering algorithm
-            List<String> filteredWords = applyOriginalAlgorithm(word);
-            
-            // Get suggestions using your original best() method
-            List<String> suggestions = getSuggestions(filteredWords);
-            
-            if (suggestions.isEmpty()) {
-                return new WordleResponse(filteredWords, "No optimal suggestions found. Here are remaining words: " + filteredWords.size(), false);
-            }
+    /**
+     * Solves {@code history} on a dictionary version the caller already resolved, e.g. the one
+     * it tagged the response with (see {@link #etag(WordleDictionary, List)}), so that a reload
+     * in between cannot change the version the response is computed on.
+     */
+    public WordleResponse solve(WordleDictionary dictionary, List<GuessFeedback> history, long budgetNanos,
+                                Consumer<WordleResponse> progress) {
+        return solve(dictionary, null, history, budgetNanos, progress);
+    }
 
-            return new WordleResponse(suggestions, "Found " + suggestions.size() + " optimal suggestions using your original algorithm", true);
+    private WordleResponse solve(String dictionaryName, List<GuessFeedback> history, long budgetNanos, Consumer<WordleResponse> progress) {
+        return solve(null, dictionaryName, history, budgetNanos, progress);
+    }
+
+    // On resolved if given, or else on the dictionary named or for the history's word length
+    private WordleResponse solve(WordleDictionary resolved, String dictionaryName, List<GuessFeedback> history, long budgetNanos,
+                                 Consumer<WordleResponse> progress) {
+        try {
+            // Parse every turn into this request's own constraint state
+            long start = metrics.start();
+            SolveConstraints constraints = parseHistory(history);
+            metrics.stage(SolveMetrics.Stage.PARSE, start);
+            WordleDictionary dictionary = resolved != null ? resolved : dictionaries.get(dictionaryName, constraints.length());
+            checkLength(dictionary, constraints);
+
+            WordleResponse planned = fromTree(dictionary, history, constraints);
+            if (planned != null) {
+                metrics.path(SolveMetrics.Path.TREE);
+                return planned;
+            }
+            return budgetNanos <= 0 && progress == null
+                    ? solve(dictionary, constraints)
+                    : solve(dictionary, constraints, budgetNanos, progress);
             
+        } catch (IllegalArgumentException e) {
+            return new WordleResponse(null, e.getMessage(), false);
+        } catch (SolverUnavailableException e) {
+            throw e; // e.g. a dictionary still loading: answered 503 with Retry-After
         } catch (Exception e) {
             return new WordleResponse(null, "Error processing request: " + e.getMessage(), false);
         }
     }
-    
-    private void resetState() {
-        ban.clear();
-        contain.clear();
-        sure.clear();
-        for (int i = 0; i < LEN; i++) {
-            unsure[i].clear();
+
+    /**
+     * Strong entity tag of the complete response to {@code history}: the dictionary version,
+     * the canonical constraint key and, for games still on the strategy tree, the tree node.
+     * Equal tags mean equal responses, so it can be computed, and matched against a client's
+     * copy, without solving. Empty when the history is invalid for {@code dictionary}.
+     */
+    public Optional<String> etag(WordleDictionary dictionary, List<GuessFeedback> history) {
+        try {
+            SolveConstraints constraints = parseHistory(history);
+            checkLength(dictionary, constraints);
+            String tag = Long.toHexString(dictionary.version()) + "-" + constraints.key();
+            int node = dictionary.tree() == null ? -1 : dictionary.tree().walk(history, dictionary.guesses());
+            return Optional.of(node < 0 ? tag : tag + "-t" + node);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
         }
-        delima = false;
-        // Reset words to original vocab
-        words = new ArrayList<>(vocab);
     }
-    
-    private List<String> applyOriginalAlgorithm(String word) {
-        List<String> currentWords = new ArrayList<>(words);
-        
-        // Apply green letter filtering (your original logic)
-        for (Integer index : sure.keySet()) {
-            if (contain.indexOf(sure.get(index)) == -1) {
-                contain.add(sure.get(index));
-            }
-            for (int i = 0; i < currentWords.size(); i++) {
-                if (currentWords.get(i).charAt(index) != sure.get(index)) {
-                    currentWords.remove(i);
-                    i--;
-                }
+
+    /**
+     * Suggestions for an already parsed constraint state, served from the result cache
+     * when an equivalent state has been solved before.
+     */
+    public WordleResponse solve(SolveConstraints constraints) {
+        return solve(dictionaries.get(), constraints);
+    }
+
+    public WordleResponse solve(WordleDictionary dictionary, SolveConstraints constraints) {
+        return solve(dictionary, constraints, 0, null);
+    }
+
+    /**
+     * Anytime variant of {@link #solve(SolveConstraints)}: ranks the remaining answers first,
+     * then the wider vocabulary until the budget runs out. Only complete results are cached.
+     */
+    public WordleResponse solve(SolveConstraints constraints, long budgetNanos, Consumer<WordleResponse> progress) {
+        return solve(dictionaries.get(), constraints, budgetNanos, progress);
+    }
+
+    /**
+     * Identical solves that arrive while one is being ranked share its result instead of
+     * ranking again: the first caller ranks within its own budget, and the others wait for it
+     * up to theirs, without getting {@code progress} updates. A caller that stops waiting, or
+     * whose progress consumer fails, never stops the ranking that others are waiting for.
+     * Callers without a budget, which expect a complete ranking, rank on their own if the
+     * shared one ran out of time.
+     *
+     * <p>After a live ranking the likeliest states of the next turn are solved ahead in the
+     * background (see {@link Speculation}), and a state found there is answered from it.
+     */
+    public WordleResponse solve(WordleDictionary dictionary, SolveConstraints constraints, long budgetNanos, Consumer<WordleResponse> progress) {
+        return solve(dictionary, constraints, null, budgetNanos, progress);
+    }
+
+    /**
+     * Variant for callers that already hold the answers matching {@code constraints}, e.g. a
+     * game session's candidates, which are ranked instead of filtering the whole dictionary
+     * again. They must be exactly the matching answers: the result is cached under the
+     * constraints' key. Null filters as the other variants do.
+     */
+    public WordleResponse solve(WordleDictionary dictionary, SolveConstraints constraints, long[] candidates, long budgetNanos,
+                                Consumer<WordleResponse> progress) {
+        ResultKey key = new ResultKey(dictionary.version(), constraints.key());
+        WordleResponse cached = results.getIfPresent(key);
+        if (cached != null) {
+            metrics.path(SolveMetrics.Path.CACHE);
+            return cached;
+        }
+        Speculation.Speculated speculated = speculation.take(key);
+        if (speculated != null) {
+            results.put(key, speculated.response());
+            metrics.path(SolveMetrics.Path.SPECULATED);
+            speculate(dictionary, constraints, candidates != null ? candidates : dictionary.index().filter(constraints), speculated.guess());
+            return speculated.response();
+        }
+        CompletableFuture<WordleResponse> flight = new CompletableFuture<>();
+        CompletableFuture<WordleResponse> shared = inFlight.putIfAbsent(key, flight);
+        if (shared != null) {
+            long waitStart = System.nanoTime();
+            WordleResponse response = await(shared, budgetNanos);
+            if (response != null) {
+                coalesced.increment();
+                metrics.path(SolveMetrics.Path.COALESCED);
+                return response;
             }
+            // Rank with what is left of the budget, at least one deadline check's worth of guesses
+            long left = budgetNanos > 0 ? Math.max(1, budgetNanos - (System.nanoTime() - waitStart)) : 0;
+            metrics.path(SolveMetrics.Path.RANKED);
+            return rank(dictionary, constraints, candidates, key, left, progress);
         }
-        
-        // Apply yellow letter filtering (your original logic)
-        for (int i = 0; i < contain.size(); i++) {
-            for (int j = 0; j < ban.size(); j++) {
-                if (ban.get(j) == contain.get(i)) {
-                    ban.remove(j);
-                    j--;
+
+        metrics.path(SolveMetrics.Path.RANKED);
+        RuntimeException[] progressFailure = new RuntimeException[1];
+        Consumer<WordleResponse> ownProgress = progress == null ? null : interim -> {
+            if (progressFailure[0] == null) {
+                try {
+                    progress.accept(interim);
+                } catch (RuntimeException e) {
+                    progressFailure[0] = e; // e.g. a stream client that went away: keep ranking for the others
                 }
             }
-            for (int j = 0; j < currentWords.size(); j++) {
-                if (currentWords.get(j).indexOf(contain.get(i)) == -1) {
-                    currentWords.remove(j);
-                    j--;
-                }
+        };
+        try {
+            WordleResponse response = rank(dictionary, constraints, candidates, key, budgetNanos, ownProgress);
+            flight.complete(response);
+            if (progressFailure[0] != null) {
+                throw progressFailure[0];
             }
-            for (int j = 0; j < currentWords.size(); j++) {
-                if (currentWords.get(j).indexOf(contain.get(i)) == word.indexOf(contain.get(i)) && !sure.containsValue(contain.get(i))) {
-                    currentWords.remove(j);
-                    j--;
-                }
+            return response;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private WordleResponse rank(WordleDictionary dictionary, SolveConstraints constraints, long[] candidates, ResultKey key,
+                                long budgetNanos, Consumer<WordleResponse> progress) {
+        long[] remaining = candidates != null ? candidates : applyOriginalAlgorithm(dictionary, constraints);
+        metrics.ranked(remaining);
+        long start = metrics.start();
+        Ranking ranking = dictionary.ranker().rank(remaining, SUGGESTIONS, budgetNanos,
+                progress == null ? null : interim -> progress.accept(respond(dictionary, remaining, interim)));
+        metrics.stage(SolveMetrics.Stage.RANK, start);
+        WordleResponse response = respond(dictionary, remaining, ranking);
+        if (ranking.complete()) {
+            results.put(key, response);
+        }
+        if (!ranking.guesses().isEmpty()) {
+            speculate(dictionary, constraints, remaining, ranking.guesses().get(0).guess());
+        }
+        return response;
+    }
+
+    /**
+     * Submits the next-turn states after playing {@code guess} from {@code constraints}, one per
+     * feedback pattern, the patterns that keep the most of {@code remaining} first. Winning
+     * feedback and states already solved are skipped.
+     */
+    private void speculate(WordleDictionary dictionary, SolveConstraints constraints, long[] remaining, int guess) {
+        if (!speculation.isEnabled() || guess < 0) {
+            return;
+        }
+        PatternMatrix patterns = dictionary.patterns();
+        int[] counts = new int[patterns.patternCount()];
+        int offset = patterns.rowOffset(guess);
+        for (int b = 0; b < remaining.length; b++) {
+            for (long block = remaining[b]; block != 0; block &= block - 1) {
+                int answer = (b << 6) + Long.numberOfTrailingZeros(block);
+                counts[patterns.isWide() ? patterns.widePatternAt(offset + answer) : patterns.patternAt(offset + answer)]++;
             }
         }
-        
-        // Apply grey letter filtering (your original logic)
-        for (int i = 0; i < ban.size(); i++) {
-            for (int j = 0; j < currentWords.size(); j++) {
-                if (currentWords.get(j).indexOf(ban.get(i)) != -1) {
-                    currentWords.remove(j);
-                    j--;
-                }
+        List<Integer> likeliest = new ArrayList<>();
+        for (int pattern = 0; pattern < counts.length - 1; pattern++) { // the last pattern is all green
+            if (counts[pattern] > 0) {
+                likeliest.add(pattern);
             }
         }
-        
-        // Apply position-based filtering (your original logic)
-        for (int i = 0; i < unsure.length; i++) {
-            for (int k = 0; k < unsure[i].size(); k++) {
-                for (int j = 0; j < currentWords.size(); j++) {
-                    if (currentWords.get(j).charAt(i) == unsure[i].get(k)) {
-                        currentWords.remove(j);
-                        j--;
-                    }
-                }
+        likeliest.sort(Comparator.comparingInt((Integer pattern) -> counts[pattern]).reversed());
+
+        String word = dictionary.guesses().get(guess);
+        for (int pattern : likeliest.subList(0, Math.min(speculation.partitions(), likeliest.size()))) {
+            SolveConstraints next = SolveConstraints.combine(List.of(constraints, SolveConstraints.of(word, pattern)));
+            ResultKey key = new ResultKey(dictionary.version(), next.key());
+            // Probing through the map view leaves the cache's hit and miss counts to real requests
+            if (!results.asMap().containsKey(key)) {
+                speculation.submit(key, stop -> rankAhead(dictionary, next, stop));
             }
         }
-        
-        // Set delima flag (your original logic)
-        if (sure.size() >= 2) {
-            delima = true;
+    }
+
+    // Background ranking of a speculated state, off the request metrics; null if it gave way to live work
+    private Speculation.Speculated rankAhead(WordleDictionary dictionary, SolveConstraints constraints, BooleanSupplier stop) {
+        long[] remaining = dictionary.index().filter(constraints);
+        Ranking ranking = dictionary.ranker().rank(remaining, SUGGESTIONS, stop);
+        if (!ranking.complete()) {
+            return null;
         }
-        
-        return currentWords;
+        WordleResponse response = buildResponse(dictionary, remaining, ranking);
+        return new Speculation.Speculated(response, ranking.guesses().isEmpty() ? -1 : ranking.guesses().get(0).guess(), 0);
     }
-    
-    private List<String> getSuggestions(List<String> remainingWords) {
-        if (delima && remainingWords.size() >= 3) {
-            return best(vocab, remainingWords);
+
+    /**
+     * The shared ranking's response; null if it did not finish within this caller's budget, or
+     * if this caller has no budget and it is incomplete. Waiting never cancels the shared
+     * future, so timing out here affects no other caller.
+     */
+    private WordleResponse await(CompletableFuture<WordleResponse> shared, long budgetNanos) {
+        try {
+            WordleResponse response = budgetNanos > 0 ? shared.get(budgetNanos, TimeUnit.NANOSECONDS) : shared.get();
+            return response.isComplete() || budgetNanos > 0 ? response : null;
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an identical request that is being solved", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
         }
-        return remainingWords.stream().limit(10).collect(Collectors.toList());
     }
-    
-    // Your original best() method adapted
-    private List<String> best(List<String> listOfWords, List<String> remainingWords) {
-        List<String> returnList = new ArrayList<>();
-        List<Character> commonLetters = mostCommonLetters(remainingWords);
-        
-        for (String word : listOfWords) {
-            if (containLetter(word, commonLetters) && isBest(word)) {
-                returnList.add(word);
-            }
+
+    public SolverCacheStatistics cacheStatistics() {
+        CacheStats stats = results.stats();
+        return new SolverCacheStatistics(results.estimatedSize(), stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                stats.hitRate(), coalesced.sum(), speculation.hits());
+    }
+
+    /**
+     * Validates and merges a game history; invalid turns, or turns of different lengths,
+     * raise {@link IllegalArgumentException}.
+     */
+    public SolveConstraints parseHistory(List<GuessFeedback> history) {
+        if (history == null || history.isEmpty()) {
+            throw new IllegalArgumentException("History must contain at least one guess");
         }
-        
-        return returnList.stream().limit(10).collect(Collectors.toList());
+        List<SolveConstraints> turns = new ArrayList<>(history.size());
+        for (int t = 0; t < history.size(); t++) {
+            turns.add(parseTurn(history.get(t), history.size() > 1 ? "Guess " + (t + 1) + ": " : ""));
+        }
+        return SolveConstraints.combine(turns);
     }
-    
-    // Your original containLetter() method
-    private boolean containLetter(String word, List<Character> list) {
-        int count = 0;
-        if (!single(word)) {
-            return false;
+
+    public SolveConstraints parseTurn(GuessFeedback turn) {
+        return parseTurn(turn, "");
+    }
+
+    private SolveConstraints parseTurn(GuessFeedback turn, String prefix) {
+        int length = turn == null || turn.getWord() == null ? 0 : turn.getWord().length();
+        try {
+            dictionaries.checkLength(length);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(prefix + e.getMessage(), e);
         }
-        
-        for (int i = 0; i < word.length(); i++) {
-            for (int j = 0; j < list.size(); j++) {
-                if (word.charAt(i) == list.get(j)) {
-                    count++;
-                    break;
-                }
-            }
+
+        if (turn.getHints() == null || turn.getHints().split(" ").length != length) {
+            throw new IllegalArgumentException(prefix + "Hints must be in format: '" + String.join(" ", Collections.nCopies(length, "x"))
+                    + "' (" + length + " characters with spaces)");
         }
+
+        try {
+            return SolveConstraints.parse(turn.getWord(), turn.getHints().split(" "));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(prefix + e.getMessage(), e);
+        }
+    }
+
+    /** The current version of the default dictionary. */
+    public WordleDictionary dictionary() {
+        return dictionaries.get();
+    }
+
+    /** The current version of dictionary {@code name}; unknown names raise {@link IllegalArgumentException}. */
+    public WordleDictionary dictionary(String name) {
+        return dictionaries.get(name);
+    }
+
+    public Optional<WordleDictionary> findDictionary(String name) {
+        return dictionaries.find(name);
+    }
+
+    public List<WordleDictionary> dictionaries() {
+        return dictionaries.all();
+    }
+
+    /** The dictionary a request names, or else the one for its words' length. */
+    public WordleDictionary dictionary(String name, int length) {
+        return dictionaries.get(name, length);
+    }
+
+    /** Rejects constraints parsed from words of another length than {@code dictionary}'s. */
+    public void checkLength(WordleDictionary dictionary, SolveConstraints constraints) {
+        if (constraints.length() != dictionary.length()) {
+            throw new IllegalArgumentException("Word must be exactly " + dictionary.length() + " letters"
+                    + (dictionary.name().equals(dictionaries.defaultName()) ? "" : " in dictionary '" + dictionary.name() + "'"));
+        }
+    }
+
+    /** Possible answers of the default dictionary, in index order. */
+    public List<String> words() {
+        return dictionary().answers();
+    }
+
+    /** Allowed guesses of the default dictionary: the answers, then guess-only words. */
+    public List<String> guesses() {
+        return dictionary().guesses();
+    }
+
+    /** Bitmap of every answer in the default dictionary, the candidate set before any feedback. */
+    public long[] allWords() {
+        return dictionary().index().all();
+    }
+
+    /** Narrows an existing candidate set of the default dictionary by one more turn. */
+    public long[] filter(SolveConstraints constraints, long[] candidates) {
+        return filter(dictionary(), constraints, candidates);
+    }
+
+    /** Narrows an existing candidate set, e.g. a game session's, by one more turn. */
+    public long[] filter(WordleDictionary dictionary, SolveConstraints constraints, long[] candidates) {
+        long start = metrics.start();
+        long[] filtered = dictionary.index().filter(constraints, candidates);
+        metrics.stage(SolveMetrics.Stage.FILTER, start);
+        metrics.filtered(metrics.isEnabled() ? DictionaryIndex.count(candidates) : 0, filtered);
+        return filtered;
+    }
+
+    public int count(long[] candidates) {
+        return DictionaryIndex.count(candidates);
+    }
+
+    /** Ranks guesses of the default dictionary by expected information over the remaining answers. */
+    public WordleResponse suggest(long[] remaining) {
+        return suggest(dictionary(), remaining);
+    }
+
+    public WordleResponse suggest(WordleDictionary dictionary, long[] remaining) {
+        metrics.ranked(remaining);
+        long start = metrics.start();
+        Ranking ranking = dictionary.ranker().rank(remaining, SUGGESTIONS, 0, null);
+        metrics.stage(SolveMetrics.Stage.RANK, start);
+        return respond(dictionary, remaining, ranking);
+    }
+
+    /** The default dictionary tree's opening guess, if it has a tree. */
+    public Optional<String> openingGuess() {
+        WordleDictionary dictionary = dictionary();
+        return dictionary.tree() == null ? Optional.empty() : Optional.of(dictionary.guesses().get(dictionary.tree().guess(0)));
+    }
+
+    /**
+     * Searches a strategy tree over the default dictionary, trying the {@code beam} most
+     * informative guesses at each node. {@code opener} fixes the first guess if not null.
+     */
+    public DecisionTree buildTree(int beam, String opener) {
+        WordleDictionary dictionary = dictionary();
+        int first = opener == null ? -1 : dictionary.guesses().indexOf(opener.toLowerCase());
+        if (opener != null && first < 0) {
+            throw new IllegalArgumentException("Opening guess '" + opener + "' is not in the word list");
+        }
+        return new DecisionTreeBuilder(dictionary.patterns(), dictionary.ranker(), beam).build(dictionary.version(), first);
+    }
+
+    // Games that have followed the tree so far get its next guess without any ranking
+    private WordleResponse fromTree(WordleDictionary dictionary, List<GuessFeedback> history, SolveConstraints constraints) {
+        DecisionTree tree = dictionary.tree();
+        if (tree == null) {
+            return null;
+        }
+        int node = tree.walk(history, dictionary.guesses());
+        if (node < 0) {
+            return null;
+        }
+        long[] remaining = applyOriginalAlgorithm(dictionary, constraints);
+        int guess = tree.guess(node);
+        String word = dictionary.guesses().get(guess);
+        WordleResponse response = new WordleResponse(List.of(word),
+                "Best next guess from the precomputed strategy tree over " + DictionaryIndex.count(remaining) + " remaining words", true);
+        response.setRankedSuggestions(List.of(new RankedSuggestion(word, dictionary.ranker().score(guess, remaining),
+                WordleDictionary.isCandidate(remaining, guess))));
+        return response;
+    }
+
+    private WordleResponse respond(WordleDictionary dictionary, long[] remaining, Ranking ranking) {
+        long start = metrics.start();
+        try {
+            return buildResponse(dictionary, remaining, ranking);
+        } finally {
+            metrics.stage(SolveMetrics.Stage.RESPOND, start);
+        }
+    }
+
+    private WordleResponse buildResponse(WordleDictionary dictionary, long[] remaining, Ranking ranking) {
+        List<RankedSuggestion> ranked = getSuggestions(dictionary, ranking.guesses());
         
-        return count >= list.size();
+        if (ranked.isEmpty()) {
+            List<String> filteredWords = dictionary.index().materialize(remaining);
+            return new WordleResponse(filteredWords, "No optimal suggestions found. Here are remaining words: " + filteredWords.size(), false);
+        }
+
+        List<String> suggestions = new ArrayList<>(ranked.size());
+        for (RankedSuggestion suggestion : ranked) {
+            suggestions.add(suggestion.getWord());
+        }
+        String message = "Ranked " + suggestions.size() + " suggestions by expected information over "
+                + DictionaryIndex.count(remaining) + " remaining words";
+        if (!ranking.complete()) {
+            message += " (best so far: scored " + ranking.scored() + " of " + ranking.total() + " guesses)";
+        }
+        WordleResponse response = new WordleResponse(suggestions, message, true);
+        response.setRankedSuggestions(ranked);
+        response.setComplete(ranking.complete());
+        return response;
     }
     
-    // Your original single() method
-    private boolean single(String word) {
-        for (int i = 0; i < word.length() - 1; i++) {
-            for (int j = i + 1; j < word.length(); j++) {
-                if (word.charAt(i) == word.charAt(j)) {
-                    return false;
-                }
-            }
-        }
-        return true;
+    // Green, yellow, grey and position filtering as AND/ANDNOT over the shared index
+    // (timed as one stage: a single bitmap operation costs less than recording a timer sample)
+    private long[] applyOriginalAlgorithm(WordleDictionary dictionary, SolveConstraints constraints) {
+        long start = metrics.start();
+        long[] remaining = dictionary.index().filter(constraints);
+        metrics.stage(SolveMetrics.Stage.FILTER, start);
+        metrics.filtered(dictionary.index().size(), remaining);
+        return remaining;
     }
     
-    // Your original isBest() method
-    private boolean isBest(String word) {
-        for (int i = 0; i < unsure.length; i++) {
-            if (unsure[i].contains(word.charAt(i))) {
-                return false;
-            }
+    // Roughly the number of words a cached response holds
+    private static int weight(WordleResponse response) {
+        int weight = 1;
+        if (response.getSuggestions() != null) {
+            weight += response.getSuggestions().size();
         }
-        return true;
+        if (response.getRankedSuggestions() != null) {
+            weight += response.getRankedSuggestions().size();
+        }
+        return weight;
     }
+
+    record ResultKey(long dictionaryVersion, String constraints) {}
     
-    // Your original mostCommonLetters() method adapted
-    private List<Character> mostCommonLetters(List<String> remainingWords) {
-        List<Integer> unsureDigit = new ArrayList<>();
-        List<Character> returnList = new ArrayList<>();
-        Map<Character, Integer> letterCount = new HashMap<>();
-        
-        for (int i = 0; i < LEN; i++) {
-            if (!sure.containsKey(i)) {
-                unsureDigit.add(i);
-            }
-        }
-        
-        for (String word : remainingWords) {
-            for (Integer digit : unsureDigit) {
-                char letter = word.charAt(digit);
-                letterCount.put(letter, letterCount.getOrDefault(letter, 0) + 1);
-            }
+    @PreDestroy
+    public void shutdown() {
+        speculation.shutdown();
+    }
+
+    private List<RankedSuggestion> getSuggestions(WordleDictionary dictionary, List<RankedGuess> ranked) {
+        List<RankedSuggestion> suggestions = new ArrayList<>(ranked.size());
+        for (RankedGuess guess : ranked) {
+            suggestions.add(new RankedSuggestion(dictionary.guesses().get(guess.guess()), guess.score(), guess.candidate()));
         }
-        
-        // Sort by frequency and return top 3
-        return letterCount.entrySet().stream()
-                .sorted(Map.Entry.<Character, Integer>comparingByValue().reversed())
-                .limit(3)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        return suggestions;
     }
 }
@@ -0,0 +1,48 @@
+package com.yiranhu.wordle.simulation;
+
+import com.yiranhu.wordle.model.GuessFeedback;
+import com.yiranhu.wordle.model.RankedSuggestion;
+import com.yiranhu.wordle.model.WordleResponse;
+import com.yiranhu.wordle.service.SolveConstraints;
+import com.yiranhu.wordle.service.WordleSolver;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Plays the best-ranked suggestion that can still be the answer, like a player who only
+ * ever guesses possible words. Falls back to the top suggestion when none of them can win.
+ */
+@Component
+@Profile("simulate")
+public class CandidateStrategy implements GuessStrategy {
+
+    private final WordleSolver wordleSolver;
+
+    public CandidateStrategy(WordleSolver wordleSolver) {
+        this.wordleSolver = wordleSolver;
+    }
+
+    @Override
+    public String name() {
+        return "candidate";
+    }
+
+    @Override
+    public String guess(List<GuessFeedback> history) {
+        WordleResponse response = history.isEmpty()
+                ? wordleSolver.solve(SolveConstraints.none())
+                : wordleSolver.solve(history);
+        List<RankedSuggestion> ranked = response.getRankedSuggestions();
+        if (!response.isSuccess() || ranked == null || ranked.isEmpty()) {
+            return null;
+        }
+        for (RankedSuggestion suggestion : ranked) {
+            if (suggestion.isPossibleAnswer()) {
+                return suggestion.getWord();
+            }
+        }
+        return ranked.get(0).getWord();
+    }
+}
@@ -0,0 +1,36 @@
+package com.yiranhu.wordle.simulation;
+
+import com.yiranhu.wordle.model.GuessFeedback;
+import com.yiranhu.wordle.model.WordleResponse;
+import com.yiranhu.wordle.service.SolveConstraints;
+import com.yiranhu.wordle.service.WordleSolver;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** Plays the solver's top suggestion, exactly what the API returns first. */
+@Component
+@Profile("simulate")
+public class EntropyStrategy implements GuessStrategy {
+
+    private final WordleSolver wordleSolver;
+
+    public EntropyStrategy(WordleSolver wordleSolver) {
+        this.wordleSolver = wordleSolver;
+    }
+
+    @Override
+    public String name() {
+        return "entropy";
+    }
+
+    @Override
+    public String guess(List<GuessFeedback> history) {
+        WordleResponse response = history.isEmpty()
+                ? wordleSolver.solve(SolveConstraints.none())
+                : wordleSolver.solve(history);
+        List<String> suggestions = response.getSuggestions();
+        return response.isSuccess() && suggestions != null && !suggestions.isEmpty() ? suggestions.get(0) : null;
+    }
+}
@@ -0,0 +1,172 @@
+package com.yiranhu.wordle.simulation;
+
+import com.yiranhu.wordle.model.GuessFeedback;
+import com.yiranhu.wordle.service.DictionaryIndex;
+import com.yiranhu.wordle.service.Feedback;
+import com.yiranhu.wordle.service.SolveConstraints;
+import com.yiranhu.wordle.service.WordleDictionary;
+import com.yiranhu.wordle.service.WordleSolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Differential check of the constraint filter against a brute-force reference: a word fits a
+ * game exactly when every guess, scored against it, gives the feedback that was received.
+ * Plays random games, half their guesses with repeated letters, and compares the solver's
+ * candidates (one merged filter, and turn by turn as game sessions do), the constraint
+ * matcher on every word, and the result cache key, which must never be shared by two
+ * different candidate sets. Enabled by the {@code check-filter} profile; fails on any
+ * mismatch. {@code wordle.check.dictionary} checks a dictionary other than the default,
+ * e.g. one of another word length:
+ *
+ * <pre>java -jar wordle-backend.jar --spring.profiles.active=check-filter --wordle.check.games=20000</pre>
+ */
+@Component
+@Profile("check-filter")
+public class FilterCheckRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(FilterCheckRunner.class);
+
+    // Mismatches reported in detail before the check gives up
+    private static final int REPORTED = 10;
+
+    private final WordleSolver wordleSolver;
+    private final String dictionaryName;
+    private final int games;
+    private final int maxTurns;
+    private final long seed;
+
+    public FilterCheckRunner(WordleSolver wordleSolver,
+                             @Value("${wordle.check.dictionary:}") String dictionaryName,
+                             @Value("${wordle.check.games:5000}") int games,
+                             @Value("${wordle.check.max-turns:4}") int maxTurns,
+                             @Value("${wordle.check.seed:42}") long seed) {
+        this.wordleSolver = wordleSolver;
+        this.dictionaryName = dictionaryName;
+        this.games = games;
+        this.maxTurns = maxTurns;
+        this.seed = seed;
+    }
+
+    @Override
+    public void run(String... args) {
+        WordleDictionary dictionary = wordleSolver.dictionary(dictionaryName);
+        List<String> words = dictionary.answers();
+        List<String> repeated = new ArrayList<>();
+        for (String word : words) {
+            if (word.chars().distinct().count() < word.length()) {
+                repeated.add(word);
+            }
+        }
+        Random random = new Random(seed);
+        Map<String, long[]> byKey = new HashMap<>();
+        List<String> mismatches = new ArrayList<>();
+        long start = System.nanoTime();
+
+        int played = 0;
+        for (; played < games && mismatches.size() < REPORTED; played++) {
+            String answer = words.get(random.nextInt(words.size()));
+            List<GuessFeedback> history = new ArrayList<>();
+            int turns = 1 + random.nextInt(maxTurns);
+            for (int turn = 0; turn < turns; turn++) {
+                List<String> pool = random.nextBoolean() && !repeated.isEmpty() ? repeated : words;
+                String guess = pool.get(random.nextInt(pool.size()));
+                history.add(new GuessFeedback(guess, Feedback.hints(guess, Feedback.pattern(guess, answer))));
+            }
+            check(dictionary, answer, history, words, byKey, mismatches);
+        }
+
+        log.info("Checked {} games on dictionary '{}' against the reference filter in {} ms: {} mismatches",
+                played, dictionary.name(), (System.nanoTime() - start) / 1_000_000, mismatches.size());
+        if (!mismatches.isEmpty()) {
+            mismatches.forEach(log::error);
+            throw new IllegalStateException("Constraint filter disagrees with the reference on " + mismatches.size() + " games");
+        }
+    }
+
+    private void check(WordleDictionary dictionary, String answer, List<GuessFeedback> history, List<String> words,
+                       Map<String, long[]> byKey, List<String> mismatches) {
+        long[] expected = reference(answer, history, words);
+        SolveConstraints constraints = wordleSolver.parseHistory(history);
+
+        long[] merged = wordleSolver.filter(dictionary, constraints, dictionary.index().all());
+        if (!Arrays.equals(merged, expected)) {
+            mismatches.add("filter " + describe(history, merged, expected, words));
+        }
+
+        long[] session = dictionary.index().all();
+        SolveConstraints combined = SolveConstraints.none(dictionary.length());
+        for (GuessFeedback turn : history) {
+            SolveConstraints parsed = wordleSolver.parseTurn(turn);
+            session = wordleSolver.filter(dictionary, parsed, session);
+            combined = SolveConstraints.combine(List.of(combined, parsed));
+        }
+        if (!Arrays.equals(session, expected)) {
+            mismatches.add("turn by turn " + describe(history, session, expected, words));
+        }
+
+        for (int w = 0; w < words.size(); w++) {
+            if (constraints.matches(words.get(w)) != DictionaryIndex.contains(expected, w)) {
+                mismatches.add("matches(" + words.get(w) + ") " + describe(history, merged, expected, words));
+                break;
+            }
+        }
+
+        if (!constraints.key().equals(combined.key())) {
+            mismatches.add("key " + constraints.key() + " differs from turn by turn " + combined.key() + " for " + render(history));
+        }
+        long[] previous = byKey.putIfAbsent(constraints.key(), expected);
+        if (previous != null && !Arrays.equals(previous, expected)) {
+            mismatches.add("key " + constraints.key() + " is shared by different candidate sets, e.g. " + render(history));
+        }
+    }
+
+    // Scored against the answer, not read back from the hints, so that the hint format is checked too
+    private static long[] reference(String answer, List<GuessFeedback> history, List<String> words) {
+        long[] matching = new long[(words.size() + 63) >>> 6];
+        for (int w = 0; w < words.size(); w++) {
+            boolean fits = true;
+            for (GuessFeedback turn : history) {
+                if (Feedback.pattern(turn.getWord(), words.get(w)) != Feedback.pattern(turn.getWord(), answer)) {
+                    fits = false;
+                    break;
+                }
+            }
+            if (fits) {
+                matching[w >>> 6] |= 1L << w;
+            }
+        }
+        return matching;
+    }
+
+    private static String render(List<GuessFeedback> history) {
+        StringBuilder text = new StringBuilder();
+        for (GuessFeedback turn : history) {
+            text.append(text.length() == 0 ? "" : ", ").append(turn.getWord()).append(" [").append(turn.getHints()).append(']');
+        }
+        return text.toString();
+    }
+
+    private static String describe(List<GuessFeedback> history, long[] actual, long[] expected, List<String> words) {
+        List<String> missing = new ArrayList<>();
+        List<String> extra = new ArrayList<>();
+        for (int w = 0; w < words.size(); w++) {
+            boolean inActual = DictionaryIndex.contains(actual, w);
+            if (inActual != DictionaryIndex.contains(expected, w)) {
+                (inActual ? extra : missing).add(words.get(w));
+            }
+        }
+        return "for " + render(history) + ": missing " + missing + ", extra " + extra;
+    }
+}
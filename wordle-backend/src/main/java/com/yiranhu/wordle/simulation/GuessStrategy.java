@@ -0,0 +1,18 @@
+package com.yiranhu.wordle.simulation;
+
+import com.yiranhu.wordle.model.GuessFeedback;
+
+import java.util.List;
+
+/**
+ * Picks the next guess of a simulated game. Implementations are Spring beans in the
+ * {@code simulate} profile and are selected by {@link #name()} with {@code wordle.simulate.strategy}.
+ * They are called concurrently from many games, so they must be thread-safe.
+ */
+public interface GuessStrategy {
+
+    String name();
+
+    /** Returns the next guess given the turns played so far, or null to give up. */
+    String guess(List<GuessFeedback> history);
+}
@@ -0,0 +1,96 @@
+package com.yiranhu.wordle.simulation;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Result of a load test run, written as JSON so that runs can be compared (see
+ * {@code wordle.load.baseline}). {@code responseTime} is measured from when each request was
+ * scheduled to be sent, so time spent queued behind a slow server counts;
+ * {@code serviceTime} from when it was actually sent. Latencies are in microseconds.
+ * {@code statuses} counts responses by HTTP status, plus "timeout" and "error" for
+ * requests that got none; {@code failedSolves} are 200 responses with {@code success} false.
+ */
+public record LoadTestReport(
+        String url,
+        String method,
+        double targetRate,
+        double achievedRate,
+        int concurrency,
+        long durationMs,
+        int requests,
+        int errors,
+        double errorRate,
+        int failedSolves,
+        Map<String, Integer> statuses,
+        Latency responseTime,
+        Latency serviceTime,
+        Map<String, Integer> responseTimeHistogram,
+        int games,
+        Map<String, Change> comparison) {
+
+    // Upper bounds of the histogram buckets, in milliseconds
+    private static final int[] BUCKETS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+    public record Latency(int count, double p50Micros, double p90Micros, double p99Micros, double p999Micros, double maxMicros) {
+
+        /** Nearest-rank percentiles of the given samples; sorts {@code nanos} in place. */
+        static Latency of(long[] nanos) {
+            Arrays.sort(nanos);
+            return new Latency(nanos.length, percentile(nanos, 0.50), percentile(nanos, 0.90), percentile(nanos, 0.99),
+                    percentile(nanos, 0.999), nanos.length == 0 ? 0 : nanos[nanos.length - 1] / 1000.0);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(rank, 1) - 1] / 1000.0;
+        }
+    }
+
+    /** One metric of this run next to the same metric of a baseline run. */
+    public record Change(double baseline, double current, double changePercent) {
+
+        static Change of(double baseline, double current) {
+            return new Change(baseline, current, baseline == 0 ? 0 : 100 * (current - baseline) / baseline);
+        }
+    }
+
+    /** Request counts by latency bucket, "<=1ms" up to "<=10000ms" and then "more". */
+    static Map<String, Integer> histogram(long[] nanos) {
+        Map<String, Integer> histogram = new LinkedHashMap<>();
+        for (int bound : BUCKETS_MS) {
+            histogram.put("<=" + bound + "ms", 0);
+        }
+        histogram.put("more", 0);
+        for (long sample : nanos) {
+            String bucket = "more";
+            for (int bound : BUCKETS_MS) {
+                if (sample <= bound * 1_000_000L) {
+                    bucket = "<=" + bound + "ms";
+                    break;
+                }
+            }
+            histogram.merge(bucket, 1, Integer::sum);
+        }
+        return histogram;
+    }
+
+    /** This report with the key metrics compared against {@code baseline}. */
+    LoadTestReport comparedTo(LoadTestReport baseline) {
+        Map<String, Change> changes = new LinkedHashMap<>();
+        changes.put("achievedRate", Change.of(baseline.achievedRate, achievedRate));
+        changes.put("errorRate", Change.of(baseline.errorRate, errorRate));
+        changes.put("responseTime.p50Micros", Change.of(baseline.responseTime.p50Micros, responseTime.p50Micros));
+        changes.put("responseTime.p99Micros", Change.of(baseline.responseTime.p99Micros, responseTime.p99Micros));
+        changes.put("responseTime.p999Micros", Change.of(baseline.responseTime.p999Micros, responseTime.p999Micros));
+        changes.put("responseTime.maxMicros", Change.of(baseline.responseTime.maxMicros, responseTime.maxMicros));
+        changes.put("serviceTime.p50Micros", Change.of(baseline.serviceTime.p50Micros, serviceTime.p50Micros));
+        changes.put("serviceTime.p99Micros", Change.of(baseline.serviceTime.p99Micros, serviceTime.p99Micros));
+        return new LoadTestReport(url, method, targetRate, achievedRate, concurrency, durationMs, requests, errors, errorRate,
+                failedSolves, statuses, responseTime, serviceTime, responseTimeHistogram, games, changes);
+    }
+}
@@ -0,0 +1,288 @@
+package com.yiranhu.wordle.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yiranhu.wordle.model.GuessFeedback;
+import com.yiranhu.wordle.model.WordleRequest;
+import com.yiranhu.wordle.service.Feedback;
+import com.yiranhu.wordle.service.SolveConstraints;
+import com.yiranhu.wordle.service.WordleDictionary;
+import com.yiranhu.wordle.service.WordleSolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+/**
+ * Load generator for a running backend. Plays {@code wordle.load.games} random games over the
+ * dictionary locally, as a player in hard mode would (a random opener, then always one of the
+ * words still possible), and replays every turn of every game, shuffled, as a solve request.
+ *
+ * <p>Traffic follows an open model: request {@code i} is due at {@code i / rate} seconds,
+ * whether or not earlier ones have been answered, and at most {@code wordle.load.concurrency}
+ * are in flight. Response times are taken from when a request was due, not when it could be
+ * sent, so a server that falls behind shows up in the latencies instead of silently lowering
+ * the rate (coordinated omission). Requests due during {@code wordle.load.warmup} are sent
+ * but not recorded. Enabled by the {@code load-test} profile, which turns off the web server:
+ *
+ * <pre>java -jar wordle-backend.jar --spring.profiles.active=load-test --wordle.load.rate=300 --wordle.load.output=after.json --wordle.load.baseline=before.json</pre>
+ */
+@Component
+@Profile("load-test")
+public class LoadTestRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private static final int MAX_TURNS = 6;
+    // Status codes for requests that got no response
+    private static final int TIMEOUT = -1;
+    private static final int ERROR = -2;
+
+    private final WordleSolver wordleSolver;
+    private final ObjectMapper objectMapper;
+    private final String url;
+    private final String method;
+    private final double rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int concurrency;
+    private final Duration timeout;
+    private final int games;
+    private final long seed;
+    private final String output;
+    private final String baseline;
+
+    public LoadTestRunner(WordleSolver wordleSolver, ObjectMapper objectMapper,
+                          @Value("${wordle.load.url:http://localhost:8080}") String url,
+                          @Value("${wordle.load.method:post}") String method,
+                          @Value("${wordle.load.rate:100}") double rate,
+                          @Value("${wordle.load.duration:30s}") Duration duration,
+                          @Value("${wordle.load.warmup:5s}") Duration warmup,
+                          @Value("${wordle.load.concurrency:64}") int concurrency,
+                          @Value("${wordle.load.timeout:10s}") Duration timeout,
+                          @Value("${wordle.load.games:2000}") int games,
+                          @Value("${wordle.load.seed:42}") long seed,
+                          @Value("${wordle.load.output:}") String output,
+                          @Value("${wordle.load.baseline:}") String baseline) {
+        if (!method.equals("post") && !method.equals("get")) {
+            throw new IllegalArgumentException("wordle.load.method must be post or get, not '" + method + "'");
+        }
+        if (rate <= 0 || concurrency <= 0) {
+            throw new IllegalArgumentException("wordle.load.rate and wordle.load.concurrency must be positive");
+        }
+        this.wordleSolver = wordleSolver;
+        this.objectMapper = objectMapper;
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.method = method;
+        this.rate = rate;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+        this.games = games;
+        this.seed = seed;
+        this.output = output;
+        this.baseline = baseline;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        List<HttpRequest> requests = requests(script());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, 2 * Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(executor)
+                .build();
+        try {
+            checkReady(client);
+            log.info("Sending {} requests/s to {} for {} s after a {} s warmup, at most {} in flight ({} distinct requests)",
+                    rate, url, duration.toSeconds(), warmup.toSeconds(), concurrency, requests.size());
+            LoadTestReport report = drive(client, requests);
+            if (!baseline.isEmpty()) {
+                report = report.comparedTo(objectMapper.readValue(new File(baseline), LoadTestReport.class));
+            }
+            if (output.isEmpty()) {
+                System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+            } else {
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(output), report);
+                log.info("Wrote load test report to {}", output);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Every turn of every game as the history a player would send, shuffled
+    private List<List<GuessFeedback>> script() {
+        WordleDictionary dictionary = wordleSolver.dictionary();
+        List<String> guesses = dictionary.guesses();
+        List<List<GuessFeedback>> turns = Collections.synchronizedList(new ArrayList<>());
+        IntStream.range(0, games).parallel().forEach(game -> {
+            Random random = new Random(seed + game);
+            String answer = dictionary.answers().get(random.nextInt(dictionary.answerCount()));
+            List<GuessFeedback> history = new ArrayList<>();
+            String guess = guesses.get(random.nextInt(guesses.size()));
+            for (int turn = 0; turn < MAX_TURNS; turn++) {
+                int pattern = Feedback.pattern(guess, answer);
+                if (pattern == Feedback.patterns(guess.length()) - 1) {
+                    break;
+                }
+                history.add(new GuessFeedback(guess, Feedback.hints(guess, pattern)));
+                turns.add(List.copyOf(history));
+                SolveConstraints constraints = wordleSolver.parseHistory(history);
+                List<String> possible = dictionary.index().materialize(wordleSolver.filter(dictionary, constraints, dictionary.index().all()));
+                guess = possible.get(random.nextInt(possible.size()));
+            }
+        });
+        List<List<GuessFeedback>> shuffled = new ArrayList<>(turns);
+        // Sorted first so that the shuffle, and so the run, only depends on the seed
+        shuffled.sort((a, b) -> render(a).compareTo(render(b)));
+        Collections.shuffle(shuffled, new Random(seed));
+        return shuffled;
+    }
+
+    private List<HttpRequest> requests(List<List<GuessFeedback>> script) throws Exception {
+        List<HttpRequest> requests = new ArrayList<>(script.size());
+        for (List<GuessFeedback> history : script) {
+            HttpRequest.Builder request;
+            if (method.equals("get")) {
+                StringBuilder query = new StringBuilder();
+                for (GuessFeedback turn : history) {
+                    query.append(query.length() == 0 ? "?" : "&").append("g=").append(URLEncoder.encode(turn.getWord(), StandardCharsets.UTF_8))
+                            .append("&f=").append(marks(turn.getHints()));
+                }
+                request = HttpRequest.newBuilder(URI.create(url + "/api/wordle/solve" + query)).GET();
+            } else {
+                WordleRequest body = new WordleRequest();
+                body.setHistory(history);
+                request = HttpRequest.newBuilder(URI.create(url + "/api/wordle/solve"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            }
+            requests.add(request.timeout(timeout).build());
+        }
+        return requests;
+    }
+
+    // Hints such as "g x - - g" in the compact feedback of GET /solve, "gx--g", read as their pattern
+    private static String marks(String hints) {
+        String[] hintArray = hints.split(" ");
+        int pattern = Feedback.parse(hintArray);
+        StringBuilder marks = new StringBuilder(hintArray.length);
+        for (int i = 0; i < hintArray.length; i++) {
+            int digit = Feedback.digit(pattern, i);
+            marks.append(digit == 2 ? 'g' : digit == 1 ? 'x' : '-');
+        }
+        return marks.toString();
+    }
+
+    private void checkReady(HttpClient client) throws Exception {
+        HttpRequest ready = HttpRequest.newBuilder(URI.create(url + "/api/wordle/health/ready")).timeout(timeout).build();
+        int status;
+        try {
+            status = client.send(ready, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException("No backend at " + url + ": " + e);
+        }
+        if (status != 200) {
+            throw new IllegalStateException("Backend at " + url + " is not ready (HTTP " + status + ")");
+        }
+    }
+
+    private LoadTestReport drive(HttpClient client, List<HttpRequest> requests) throws InterruptedException {
+        long intervalNanos = (long) (1e9 / rate);
+        long warmupNanos = warmup.toNanos();
+        int total = (int) ((warmupNanos + duration.toNanos()) / intervalNanos);
+        long[] responseNanos = new long[total];
+        long[] serviceNanos = new long[total];
+        int[] statuses = new int[total];
+        boolean[] failedSolves = new boolean[total];
+        Semaphore inFlight = new Semaphore(concurrency);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long due = start + i * intervalNanos;
+            for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            // Waiting for a slot counts as response time, as the request was due anyway
+            inFlight.acquire();
+            int slot = i;
+            long sent = System.nanoTime();
+            client.sendAsync(requests.get(i % requests.size()), HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+                long done = System.nanoTime();
+                responseNanos[slot] = done - due;
+                serviceNanos[slot] = done - sent;
+                if (error == null) {
+                    statuses[slot] = response.statusCode();
+                    failedSolves[slot] = response.statusCode() == 200 && response.body().contains("\"success\":false");
+                } else {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    statuses[slot] = cause instanceof HttpTimeoutException ? TIMEOUT : ERROR;
+                }
+                inFlight.release();
+            });
+        }
+        // Every slot is released once its request completes, which also publishes its results
+        if (!inFlight.tryAcquire(concurrency, timeout.toNanos() + TimeUnit.SECONDS.toNanos(1), TimeUnit.NANOSECONDS)) {
+            throw new IllegalStateException("Requests still in flight after the timeout");
+        }
+        long elapsedNanos = System.nanoTime() - start - warmupNanos;
+
+        int first = (int) Math.min(total, (warmupNanos + intervalNanos - 1) / intervalNanos);
+        int measured = total - first;
+        long[] response = new long[measured];
+        long[] service = new long[measured];
+        Map<String, Integer> byStatus = new TreeMap<>();
+        int errors = 0;
+        int failed = 0;
+        for (int i = first; i < total; i++) {
+            response[i - first] = responseNanos[i];
+            service[i - first] = serviceNanos[i];
+            int status = statuses[i];
+            byStatus.merge(status == TIMEOUT ? "timeout" : status == ERROR ? "error" : String.valueOf(status), 1, Integer::sum);
+            if (status < 200 || status >= 400) {
+                errors++;
+            }
+            if (failedSolves[i]) {
+                failed++;
+            }
+        }
+        return new LoadTestReport(url, method, rate, measured / (elapsedNanos / 1e9), concurrency, elapsedNanos / 1_000_000,
+                measured, errors, measured == 0 ? 0 : (double) errors / measured, failed, byStatus,
+                LoadTestReport.Latency.of(response), LoadTestReport.Latency.of(service), LoadTestReport.histogram(response), games, null);
+    }
+
+    private static String render(List<GuessFeedback> history) {
+        StringBuilder text = new StringBuilder();
+        for (GuessFeedback turn : history) {
+            text.append(turn.getWord()).append(' ').append(turn.getHints()).append(';');
+        }
+        return text.toString();
+    }
+}
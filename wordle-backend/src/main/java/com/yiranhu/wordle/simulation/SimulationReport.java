@@ -0,0 +1,47 @@
+package com.yiranhu.wordle.simulation;
+
+import com.yiranhu.wordle.model.SolverCacheStatistics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a full simulation run, written as JSON so runs of different strategies or
+ * builds can be diffed. {@code distribution} maps the winning turn ("1".."maxTurns") and
+ * "failed" to a game count; latencies are per solver call, in microseconds.
+ */
+public record SimulationReport(
+        String strategy,
+        int games,
+        int solved,
+        int failed,
+        double failureRate,
+        double averageGuesses,
+        Map<String, Integer> distribution,
+        List<String> failures,
+        Latency turnLatency,
+        Map<String, Latency> turnLatencyByTurn,
+        SolverCacheStatistics cache,
+        int maxTurns,
+        int threads,
+        long elapsedMs) {
+
+    public record Latency(int count, double p50Micros, double p90Micros, double p99Micros, double maxMicros) {
+
+        /** Nearest-rank percentiles of the given samples; sorts {@code nanos} in place. */
+        static Latency of(long[] nanos) {
+            Arrays.sort(nanos);
+            return new Latency(nanos.length, percentile(nanos, 0.50), percentile(nanos, 0.90),
+                    percentile(nanos, 0.99), nanos.length == 0 ? 0 : nanos[nanos.length - 1] / 1000.0);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(rank, 1) - 1] / 1000.0;
+        }
+    }
+}
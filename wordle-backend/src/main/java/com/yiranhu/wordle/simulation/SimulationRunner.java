@@ -0,0 +1,177 @@
+package com.yiranhu.wordle.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yiranhu.wordle.model.GuessFeedback;
+import com.yiranhu.wordle.service.Feedback;
+import com.yiranhu.wordle.service.WordleSolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Plays every dictionary word as the hidden answer with one {@link GuessStrategy} and
+ * writes a {@link SimulationReport}. Enabled by the {@code simulate} profile, which also
+ * turns off the web server:
+ *
+ * <pre>java -jar wordle-backend.jar --spring.profiles.active=simulate --wordle.simulate.output=report.json</pre>
+ */
+@Component
+@Profile("simulate")
+public class SimulationRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SimulationRunner.class);
+
+    private final WordleSolver wordleSolver;
+    private final ObjectMapper objectMapper;
+    private final Map<String, GuessStrategy> strategies;
+    private final String strategyName;
+    private final int threads;
+    private final int maxTurns;
+    private final int limit;
+    private final String output;
+
+    public SimulationRunner(WordleSolver wordleSolver, ObjectMapper objectMapper, List<GuessStrategy> strategies,
+                            @Value("${wordle.simulate.strategy:entropy}") String strategyName,
+                            @Value("${wordle.simulate.threads:0}") int threads,
+                            @Value("${wordle.simulate.max-turns:6}") int maxTurns,
+                            @Value("${wordle.simulate.limit:0}") int limit,
+                            @Value("${wordle.simulate.output:}") String output) {
+        this.wordleSolver = wordleSolver;
+        this.objectMapper = objectMapper;
+        this.strategies = strategies.stream().collect(Collectors.toMap(GuessStrategy::name, s -> s));
+        this.strategyName = strategyName;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.maxTurns = maxTurns;
+        this.limit = limit;
+        this.output = output;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        GuessStrategy strategy = strategies.get(strategyName);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown strategy '" + strategyName + "', expected one of " + strategies.keySet());
+        }
+        List<String> answers = wordleSolver.words();
+        if (limit > 0 && limit < answers.size()) {
+            answers = answers.subList(0, limit);
+        }
+
+        log.info("Simulating {} games with strategy '{}' on {} threads", answers.size(), strategy.name(), threads);
+        long start = System.nanoTime();
+        List<Game> games = new ArrayList<>(answers.size());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Game>> futures = new ArrayList<>(answers.size());
+            for (String answer : answers) {
+                futures.add(executor.submit(() -> play(strategy, answer)));
+            }
+            for (Future<Game> future : futures) {
+                games.add(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        SimulationReport report = report(strategy, games, elapsedMs);
+        if (output.isEmpty()) {
+            System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        } else {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(output), report);
+            log.info("Wrote simulation report to {}", output);
+        }
+    }
+
+    private Game play(GuessStrategy strategy, String answer) {
+        List<GuessFeedback> history = new ArrayList<>(maxTurns);
+        long[] turnNanos = new long[maxTurns];
+        for (int turn = 0; turn < maxTurns; turn++) {
+            long started = System.nanoTime();
+            String guess = strategy.guess(history);
+            turnNanos[turn] = System.nanoTime() - started;
+            if (guess == null) {
+                return new Game(answer, false, turn + 1, turnNanos);
+            }
+            int pattern = Feedback.pattern(guess, answer);
+            if (pattern == Feedback.patterns(guess.length()) - 1) {
+                return new Game(answer, true, turn + 1, turnNanos);
+            }
+            history.add(new GuessFeedback(guess, Feedback.hints(guess, pattern)));
+        }
+        return new Game(answer, false, maxTurns, turnNanos);
+    }
+
+    private SimulationReport report(GuessStrategy strategy, List<Game> games, long elapsedMs) {
+        Map<String, Integer> distribution = new LinkedHashMap<>();
+        for (int turn = 1; turn <= maxTurns; turn++) {
+            distribution.put(String.valueOf(turn), 0);
+        }
+        distribution.put("failed", 0);
+
+        List<String> failures = new ArrayList<>();
+        int solved = 0;
+        long guessTotal = 0;
+        int turnCount = 0;
+        for (Game game : games) {
+            turnCount += game.turns();
+            if (game.solved()) {
+                solved++;
+                guessTotal += game.turns();
+                distribution.merge(String.valueOf(game.turns()), 1, Integer::sum);
+            } else {
+                failures.add(game.answer());
+                distribution.merge("failed", 1, Integer::sum);
+            }
+        }
+
+        // Overall latency plus one series per turn number
+        long[] all = new long[turnCount];
+        long[][] byTurn = new long[maxTurns][];
+        int[] fill = new int[maxTurns];
+        for (int turn = 0; turn < maxTurns; turn++) {
+            int reached = 0;
+            for (Game game : games) {
+                if (game.turns() > turn) {
+                    reached++;
+                }
+            }
+            byTurn[turn] = new long[reached];
+        }
+        int next = 0;
+        for (Game game : games) {
+            for (int turn = 0; turn < game.turns(); turn++) {
+                all[next++] = game.turnNanos()[turn];
+                byTurn[turn][fill[turn]++] = game.turnNanos()[turn];
+            }
+        }
+        Map<String, SimulationReport.Latency> latencyByTurn = new LinkedHashMap<>();
+        for (int turn = 0; turn < maxTurns; turn++) {
+            if (byTurn[turn].length > 0) {
+                latencyByTurn.put(String.valueOf(turn + 1), SimulationReport.Latency.of(byTurn[turn]));
+            }
+        }
+
+        int failed = games.size() - solved;
+        return new SimulationReport(strategy.name(), games.size(), solved, failed,
+                games.isEmpty() ? 0 : (double) failed / games.size(),
+                solved == 0 ? 0 : (double) guessTotal / solved,
+                distribution, failures, SimulationReport.Latency.of(all), latencyByTurn,
+                wordleSolver.cacheStatistics(), maxTurns, threads, elapsedMs);
+    }
+
+    private record Game(String answer, boolean solved, int turns, long[] turnNanos) {}
+}
@@ -0,0 +1,60 @@
+package com.yiranhu.wordle.simulation;
+
+import com.yiranhu.wordle.service.DecisionTree;
+import com.yiranhu.wordle.service.DecisionTreeBuilder;
+import com.yiranhu.wordle.service.WordleSolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Builds the strategy tree served by {@link WordleSolver} and writes it to a file. Enabled by
+ * the {@code build-tree} profile; the default output replaces the tree bundled with the app:
+ *
+ * <pre>java -jar wordle-backend.jar --spring.profiles.active=build-tree --wordle.tree.output=src/main/resources/wordle-tree.bin</pre>
+ */
+@Component
+@Profile("build-tree")
+public class TreeBuildRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TreeBuildRunner.class);
+
+    private final WordleSolver wordleSolver;
+    private final int beam;
+    private final String opener;
+    private final String output;
+
+    public TreeBuildRunner(WordleSolver wordleSolver,
+                           @Value("${wordle.tree.beam:10}") int beam,
+                           @Value("${wordle.tree.opener:}") String opener,
+                           @Value("${wordle.tree.output:src/main/resources/wordle-tree.bin}") String output) {
+        this.wordleSolver = wordleSolver;
+        this.beam = beam;
+        this.opener = opener;
+        this.output = output;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        long start = System.nanoTime();
+        DecisionTree tree = wordleSolver.buildTree(beam, opener.isEmpty() ? null : opener);
+        Path file = Path.of(output);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            tree.write(out);
+        }
+        log.info("Built a {}-node tree opening with '{}' in {} ms: {} guesses per answer on average; wrote {}",
+                tree.nodes(), wordleSolver.guesses().get(tree.guess(0)), (System.nanoTime() - start) / 1_000_000,
+                String.format("%.4f", DecisionTreeBuilder.averageGuesses(tree)), file.toAbsolutePath());
+    }
+}
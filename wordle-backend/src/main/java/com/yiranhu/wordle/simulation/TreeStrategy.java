@@ -0,0 +1,44 @@
+package com.yiranhu.wordle.simulation;
+
+import com.yiranhu.wordle.model.GuessFeedback;
+import com.yiranhu.wordle.model.WordleResponse;
+import com.yiranhu.wordle.service.SolveConstraints;
+import com.yiranhu.wordle.service.WordleSolver;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Opens with the strategy tree's first guess, so the solver answers every later turn from
+ * the tree. Without a tree this plays like {@link EntropyStrategy}.
+ */
+@Component
+@Profile("simulate")
+public class TreeStrategy implements GuessStrategy {
+
+    private final WordleSolver wordleSolver;
+
+    public TreeStrategy(WordleSolver wordleSolver) {
+        this.wordleSolver = wordleSolver;
+    }
+
+    @Override
+    public String name() {
+        return "tree";
+    }
+
+    @Override
+    public String guess(List<GuessFeedback> history) {
+        if (history.isEmpty()) {
+            return wordleSolver.openingGuess()
+                    .orElseGet(() -> first(wordleSolver.solve(SolveConstraints.none())));
+        }
+        return first(wordleSolver.solve(history));
+    }
+
+    private static String first(WordleResponse response) {
+        List<String> suggestions = response.getSuggestions();
+        return response.isSuccess() && suggestions != null && !suggestions.isEmpty() ? suggestions.get(0) : null;
+    }
+}
@@ -0,0 +1,135 @@
+package com.yiranhu.wordle.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Differential test of the constraint filter against Wordle scoring over the bundled answers:
+ * a word fits a turn exactly when the guess, scored against it, gives the turn's pattern.
+ * Constraints are built from patterns, so the check does not depend on the hint format, and
+ * the hint format is checked separately by rendering and parsing every pattern.
+ */
+class SolveConstraintsTest {
+
+    private static List<String> words;
+    private static DictionaryIndex index;
+    private static List<String> guesses;
+
+    @BeforeAll
+    static void loadWords() throws IOException {
+        try (InputStream in = SolveConstraintsTest.class.getResourceAsStream("/wordle-answers.txt")) {
+            words = DictionaryRegistry.readWords(in);
+        }
+        index = DictionaryIndex.build(words);
+
+        // Guesses with an x, whose green once read back as yellow, with repeated letters, and a sample of the rest
+        Set<String> picked = new LinkedHashSet<>(List.of("extra", "exult", "speed", "eerie", "llama", "geese", "sassy"));
+        Random random = new Random(42);
+        for (String word : words) {
+            boolean repeated = word.chars().distinct().count() < word.length();
+            if (word.indexOf('x') >= 0 || (repeated && random.nextInt(4) == 0) || random.nextInt(40) == 0) {
+                picked.add(word);
+            }
+        }
+        guesses = new ArrayList<>(picked);
+    }
+
+    @Test
+    void greenXIsGreen() {
+        int pattern = Feedback.pattern("extra", "expel");
+        assertEquals("g g - - -", Feedback.hints("extra", pattern));
+
+        SolveConstraints constraints = SolveConstraints.parse("extra", Feedback.hints("extra", pattern).split(" "));
+        assertTrue(constraints.matches("expel"));
+        assertFalse(constraints.matches("exult"), "t is grey");
+        assertEquals(SolveConstraints.of("extra", pattern).key(), constraints.key());
+    }
+
+    @Test
+    void duplicateLetters() {
+        // One e green, the other grey: exactly one e, in the fourth position
+        SolveConstraints constraints = SolveConstraints.of("speed", Feedback.pattern("speed", "abbey"));
+        assertEquals(Feedback.pattern("speed", "abbey"), Feedback.parse("- - - g -".split(" ")));
+        assertEquals(1, constraints.minCount('e'));
+        assertEquals(1, constraints.maxCount('e'));
+        assertFalse(constraints.matches("geese"));
+    }
+
+    @Test
+    void everyPatternSurvivesTheHintFormat() {
+        for (String guess : guesses) {
+            for (int pattern = 0; pattern < Feedback.PATTERNS; pattern++) {
+                String hints = Feedback.hints(guess, pattern);
+                assertEquals(pattern, Feedback.parse(hints.split(" ")), guess + " [" + hints + "]");
+                assertEquals(SolveConstraints.of(guess, pattern).key(), SolveConstraints.parse(guess, hints.split(" ")).key(),
+                        guess + " [" + hints + "]");
+            }
+        }
+    }
+
+    @Test
+    void oneTurnMatchesExactlyTheWordsWithItsPattern() {
+        Random random = new Random(7);
+        for (String guess : guesses) {
+            for (int game = 0; game < 5; game++) {
+                String answer = words.get(random.nextInt(words.size()));
+                int pattern = Feedback.pattern(guess, answer);
+                SolveConstraints constraints = SolveConstraints.of(guess, pattern);
+                long[] expected = reference(List.of(guess), List.of(pattern));
+                for (int w = 0; w < words.size(); w++) {
+                    assertEquals(DictionaryIndex.contains(expected, w), constraints.matches(words.get(w)),
+                            guess + " scored against " + answer + ", checked on " + words.get(w));
+                }
+                assertArrayEquals(expected, index.filter(constraints), guess + " scored against " + answer);
+            }
+        }
+    }
+
+    @Test
+    void mergedTurnsMatchExactlyTheWordsWithEveryPattern() {
+        Random random = new Random(11);
+        for (int game = 0; game < 2000; game++) {
+            String answer = words.get(random.nextInt(words.size()));
+            List<String> played = new ArrayList<>();
+            List<Integer> patterns = new ArrayList<>();
+            List<SolveConstraints> turns = new ArrayList<>();
+            for (int turn = 1 + random.nextInt(4); turn > 0; turn--) {
+                String guess = guesses.get(random.nextInt(guesses.size()));
+                played.add(guess);
+                patterns.add(Feedback.pattern(guess, answer));
+                turns.add(SolveConstraints.of(guess, patterns.get(patterns.size() - 1)));
+            }
+            long[] expected = reference(played, patterns);
+            assertTrue(DictionaryIndex.contains(expected, words.indexOf(answer)));
+            assertArrayEquals(expected, index.filter(SolveConstraints.combine(turns)), played + " against " + answer);
+        }
+    }
+
+    // Words that give every guess its pattern
+    private static long[] reference(List<String> played, List<Integer> patterns) {
+        long[] matching = new long[(words.size() + 63) >>> 6];
+        for (int w = 0; w < words.size(); w++) {
+            boolean fits = true;
+            for (int t = 0; t < played.size() && fits; t++) {
+                fits = Feedback.pattern(played.get(t), words.get(w)) == patterns.get(t);
+            }
+            if (fits) {
+                matching[w >>> 6] |= 1L << w;
+            }
+        }
+        return matching;
+    }
+}
@@ -0,0 +1,105 @@
+package com.yiranhu.wordle.service;
+
+import com.yiranhu.wordle.model.GuessFeedback;
+import com.yiranhu.wordle.model.WordleResponse;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrent solves of different games on one solver must each get the response their own
+ * history gets alone: requests share only the immutable dictionary, never constraint state.
+ */
+class WordleSolverConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int GAMES = 150;
+
+    @TempDir
+    static Path dir;
+
+    private static List<List<GuessFeedback>> histories;
+
+    @BeforeAll
+    static void playGames() {
+        WordleSolver solver = solver(0);
+        List<String> words = solver.words();
+        Random random = new Random(42);
+        histories = new ArrayList<>();
+        for (int game = 0; game < GAMES; game++) {
+            String answer = words.get(random.nextInt(words.size()));
+            List<GuessFeedback> history = new ArrayList<>();
+            for (int turn = 1 + random.nextInt(3); turn > 0; turn--) {
+                String guess = words.get(random.nextInt(words.size()));
+                history.add(new GuessFeedback(guess, Feedback.hints(guess, Feedback.pattern(guess, answer))));
+            }
+            histories.add(history);
+        }
+    }
+
+    @Test
+    void concurrentSolvesWithoutCacheStayIsolated() throws Exception {
+        solveConcurrently(0);
+    }
+
+    @Test
+    void concurrentSolvesThroughTheCacheStayIsolated() throws Exception {
+        solveConcurrently(200_000);
+    }
+
+    private void solveConcurrently(long cacheMaxWeight) throws Exception {
+        List<WordleResponse> expected = new ArrayList<>();
+        WordleSolver reference = solver(0);
+        for (List<GuessFeedback> history : histories) {
+            expected.add(reference.solve(history));
+        }
+
+        WordleSolver solver = solver(cacheMaxWeight);
+        // Every game twice, in an order that interleaves different games and repeats of the same one
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < 2 * GAMES; i++) {
+            order.add(i % GAMES);
+        }
+        Collections.shuffle(order, new Random(7));
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<WordleResponse>> responses = new ArrayList<>();
+            for (int game : order) {
+                responses.add(pool.submit(() -> {
+                    start.await();
+                    return solver.solve(histories.get(game));
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < order.size(); i++) {
+                int game = order.get(i);
+                WordleResponse response = responses.get(i).get(60, TimeUnit.SECONDS);
+                assertTrue(response.isSuccess(), histories.get(game) + ": " + response.getMessage());
+                assertEquals(expected.get(game).getSuggestions(), response.getSuggestions(), "suggestions for " + histories.get(game));
+                assertEquals(expected.get(game).getMessage(), response.getMessage(), "message for " + histories.get(game));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static WordleSolver solver(long cacheMaxWeight) {
+        return new WordleSolver(dir.resolve("patterns.bin").toString(), 0, cacheMaxWeight, "none", SolveMetrics.disabled());
+    }
+}